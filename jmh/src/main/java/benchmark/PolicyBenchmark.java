@@ -0,0 +1,198 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.Policies;
+import simulation.ReferenceTrace;
+import simulation.ReplacementPolicyProvider;
+import simulation.Simulation;
+import workload.Workload;
+import workload.WorkloadGenerator;
+import workload.Workloads;
+
+/**
+ * The type Policy benchmark.
+ * JMH benchmark of the cost per reference of every replacement algorithm
+ * over synthetic traces of several lengths, frame counts and access
+ * patterns. Every trace length is a benchmark of its own that counts each
+ * reference as an operation, so scores are in ns per reference and, with
+ * {@code -prof gc}, {@code gc.alloc.rate.norm} is in bytes per reference.
+ * <pre>
+ * usage: java -jar jmh/target/benchmarks.jar PolicyBenchmark.references1M -prof gc
+ *        [-p algorithm=FIFO,LRU] [-p frames=16,1024]
+ *        [-p distribution=UNIFORM,ZIPF,LOOP,SCAN]
+ * </pre>
+ * Traces touch four times as many distinct pages as there are frames.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PolicyBenchmark {
+  private static final int PAGES_PER_FRAME = 4;
+  private static final double ZIPF_SKEW = 0.99;
+  private static final long SEED = 42;
+
+  /**
+   * The enum Distribution.
+   * Access patterns of the synthetic traces.
+   */
+  public enum Distribution {UNIFORM, ZIPF, LOOP, SCAN}
+
+  /**
+   * The type Cell.
+   * One algorithm, frame count and access pattern over a trace generated
+   * once per trial.
+   */
+  @State(Scope.Thread)
+  public abstract static class Cell {
+    @Param({"FIFO", "OPT", "LRU", "LFU", "LFU_DA", "LFU_DECAY", "CLOCK", "SECOND_CHANCE",
+        "ENHANCED_SECOND_CHANCE", "CLOCK_PRO", "ARC", "TWO_Q", "LIRS"})
+    public String algorithm;
+
+    @Param({"16", "1024"})
+    public int frames;
+
+    @Param({"UNIFORM", "ZIPF", "LOOP", "SCAN"})
+    public Distribution distribution;
+
+    private ReplacementPolicyProvider provider;
+    private ReferenceTrace trace;
+
+    /**
+     * Gets the length of the trace.
+     *
+     * @return the number of references
+     */
+    abstract int length();
+
+    /**
+     * Looks up the algorithm and generates the trace.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+      provider = Policies.get(algorithm);
+      trace = generate(distribution, length(), frames * PAGES_PER_FRAME);
+    }
+
+    /**
+     * Drops the trace before the next trial generates its own.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      trace = null;
+    }
+
+    /**
+     * Simulates the whole trace.
+     *
+     * @return the number of page faults
+     */
+    long simulate() {
+      Simulation simulation = new Simulation(frames, provider);
+      simulation.setRecordVictims(false);
+      return simulation.runSimulation(trace).getPageFaults();
+    }
+  }
+
+  /**
+   * The type Cell of 1K references.
+   */
+  public static class Cell1K extends Cell {
+    @Override
+    int length() {return 1_000;}
+  }
+
+  /**
+   * The type Cell of 1M references.
+   */
+  public static class Cell1M extends Cell {
+    @Override
+    int length() {return 1_000_000;}
+  }
+
+  /**
+   * The type Cell of 100M references.
+   */
+  public static class Cell100M extends Cell {
+    @Override
+    int length() {return 100_000_000;}
+  }
+
+  /**
+   * Simulates a trace of 1K references.
+   *
+   * @param cell the cell
+   * @return the number of page faults
+   */
+  @Benchmark
+  @OperationsPerInvocation(1_000)
+  public long references1K(Cell1K cell) {
+    return cell.simulate();
+  }
+
+  /**
+   * Simulates a trace of 1M references.
+   *
+   * @param cell the cell
+   * @return the number of page faults
+   */
+  @Benchmark
+  @OperationsPerInvocation(1_000_000)
+  public long references1M(Cell1M cell) {
+    return cell.simulate();
+  }
+
+  /**
+   * Simulates a trace of 100M references.
+   *
+   * @param cell the cell
+   * @return the number of page faults
+   */
+  @Benchmark
+  @OperationsPerInvocation(100_000_000)
+  public long references100M(Cell100M cell) {
+    return cell.simulate();
+  }
+
+  /**
+   * Generates a trace.
+   *
+   * @param distribution the access pattern
+   * @param length the number of references
+   * @param pages the number of distinct pages, except for scans
+   * @return the trace
+   */
+  static ReferenceTrace generate(Distribution distribution, int length, int pages) {
+    Workload workload;
+    switch (distribution) {
+      case UNIFORM:
+        workload = Workloads.uniform(pages);
+        break;
+      case ZIPF:
+        workload = Workloads.zipf(pages, ZIPF_SKEW);
+        break;
+      case LOOP:
+        workload = Workloads.loop(pages);
+        break;
+      default:
+        workload = Workloads.scan();
+    }
+    return WorkloadGenerator.generate(workload, length, SEED,
+        Runtime.getRuntime().availableProcessors());
+  }
+}
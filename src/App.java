@@ -1,5 +1,6 @@
 import commandline.CommandLineRunner;
 import commandline.Runner;
+import commandline.TraceRunner;
 
 /**
  * The type App.
@@ -8,10 +9,20 @@ public class App {
 
   /**
    * The entry point of application.
+   * Starts the interactive menu, or simulates a trace file when options
+   * such as --trace are given.
    *
    * @param args the input arguments
    */
   public static void main(String[] args) {
+    if (args.length > 0 && args[0].startsWith("--")) {
+      try {
+        new TraceRunner(args).run();
+      } catch (IllegalArgumentException e) {
+        System.out.println("Error: " + e.getMessage());
+      }
+      return;
+    }
     Runner runner = new CommandLineRunner(args);
     runner.run();
   }
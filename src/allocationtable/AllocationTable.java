@@ -1,29 +1,54 @@
 package allocationtable;
 
 import java.util.List;
+import simulation.ReferenceTrace;
 import simulation.Simulation.Page;
 
 /**
  * The type Allocation table.
+ * Only a sliding window of the most recent columns is kept, in a ring, so
+ * memory depends on the frames and the window but not on the trace length,
+ * and printing renders at most one window of columns.
  */
 public class AllocationTable implements PrintableFlipTable {
+  /**
+   * Columns shown when no window is given.
+   */
+  public static final int DEFAULT_WINDOW = 16;
+
   private int rowSize;
-  private int columnSize;
-  private String[] tableHeader;
+  private int window;
+  private ReferenceTrace referenceTrace;
+  private long[] references;
   private String[][] allocTable;
+  private int latest = 0;
 
   /**
    * Instantiates a new Allocation table.
    *
    * @param memoryCapacity the memory capacity. sets table's row size
-   * @param referenceString the reference string set's table's column size
+   * @param referenceTrace the reference trace, null when streaming
    */
-  public AllocationTable(int memoryCapacity, List referenceString) {
-    columnSize = referenceString.size();
-    rowSize = memoryCapacity;
+  public AllocationTable(int memoryCapacity, ReferenceTrace referenceTrace) {
+    this(memoryCapacity, referenceTrace, DEFAULT_WINDOW);
+  }
 
-    header(referenceString);
-    tableContents();
+  /**
+   * Instantiates a new Allocation table.
+   *
+   * @param memoryCapacity the memory capacity. sets table's row size
+   * @param referenceTrace the reference trace, null when streaming
+   * @param window the number of columns shown at once
+   */
+  public AllocationTable(int memoryCapacity, ReferenceTrace referenceTrace, int window) {
+    if (window <= 0) {
+      throw new IllegalArgumentException("Window must be positive");
+    }
+    this.rowSize = memoryCapacity;
+    this.referenceTrace = referenceTrace;
+    this.window = window;
+    references = new long[window];
+    allocTable = new String[rowSize+2][window];
   }
 
   /**
@@ -32,7 +57,7 @@ public class AllocationTable implements PrintableFlipTable {
    * @param col the col to add a fault too
    */
   public void addFault( int col) {
-    allocTable[rowSize][col+1] = "F";
+    allocTable[rowSize][slot(col+1)] = "F";
   }
 
   /**
@@ -42,55 +67,76 @@ public class AllocationTable implements PrintableFlipTable {
    * @param victim the victim to add to table
    */
   public void addVictimToTable(int col, String victim) {
-    allocTable[rowSize+1][col+1] = victim;
-  }
-
-  private void header(List referenceString) {
-    tableHeader = new String[columnSize+1];
-    tableHeader[0] = "Reference String";
-    for (int i = 1; i < columnSize+1; i++) {
-      tableHeader[i] = String.valueOf(referenceString.get(i-1));
-    }
+    allocTable[rowSize+1][slot(col+1)] = victim;
   }
 
   /**
-   * creates and assigns the allocation tables content
+   * Sets column with current allocated pages
+   *
+   * @param col the col to set
+   * @param allocatedPages the allocated pages to add
    */
-  private void tableContents() {
-    allocTable = new String[rowSize+2][columnSize+1];
-
-    for (int i = 0; i < rowSize+2; i++) {
-      allocTable[i][0] = "Physical frame " + i;
-    }
-    allocTable[rowSize][0] = "Page faults";
-    allocTable[rowSize+1][0] = "Victim frames";
-
-    for (int i = 0; i < rowSize+2; i++) {
-      for (int j = 1; j < columnSize+1 ; j++) {
-        allocTable[i][j] = " ";
-      }
+  public void setColumn(int col,List<Page> allocatedPages) {
+    int slot = slot(col);
+    for (int i = 0; i < allocatedPages.size(); i++) {
+      allocTable[i][slot] = allocatedPages.get(i).getValue();
     }
-
   }
 
   /**
-   * Sets column with current allocated pages
+   * Sets the referenced page of a column, needed when streaming.
    *
    * @param col the col to set
-   * @param allocatedPages the allocated pages to add
+   * @param pageNumber the referenced page number
    */
-  public void setColumn(int col,List<Page> allocatedPages) {
-    for (int i = 0; i < allocatedPages.size(); i++) {
-      allocTable[i][col] = allocatedPages.get(i).getValue();
+  public void setReference(int col, long pageNumber) {
+    references[slot(col)] = pageNumber;
+  }
+
+  /**
+   * Gets the ring slot of a column, clearing it the first time the column
+   * is written. Older columns slide out of the window.
+   */
+  private int slot(int col) {
+    int slot = (col - 1) % window;
+    while (latest < col) {
+      latest++;
+      int cleared = (latest - 1) % window;
+      for (int i = 0; i < rowSize+2; i++) {
+        allocTable[i][cleared] = " ";
+      }
+      references[cleared] = referenceTrace == null ? 0 : referenceTrace.get(latest - 1);
     }
+    return slot;
   }
 
   /**
    * Print allocation table.
+   * Shows the window ending at the latest column, or the first window
+   * with the upcoming references while the trace fits in it.
    */
   public void printAllocationTable() {
-    System.out.print(FlipTable.of(tableHeader, allocTable));
+    int first = Math.max(1, latest - window + 1);
+    int last = referenceTrace == null ? latest
+        : Math.min(referenceTrace.size(), first + window - 1);
+    String[] tableHeader = new String[last - first + 2];
+    String[][] data = new String[rowSize+2][last - first + 2];
+    tableHeader[0] = "Reference String";
+    for (int i = 0; i < rowSize+2; i++) {
+      data[i][0] = "Physical frame " + i;
+    }
+    data[rowSize][0] = "Page faults";
+    data[rowSize+1][0] = "Victim frames";
+    for (int col = first; col <= last; col++) {
+      int slot = (col - 1) % window;
+      boolean written = col <= latest;
+      tableHeader[col - first + 1] = String.valueOf(
+          written ? references[slot] : referenceTrace.get(col - 1));
+      for (int i = 0; i < rowSize+2; i++) {
+        data[i][col - first + 1] = written ? allocTable[i][slot] : " ";
+      }
+    }
+    System.out.print(FlipTable.of(tableHeader, data));
   }
 
 }
-
@@ -0,0 +1,133 @@
+package allocationtable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import simulation.Simulation;
+import simulation.Simulation.Page;
+import simulation.SimulationListener;
+import simulation.SimulationResult;
+
+/**
+ * The type Allocation table writer.
+ * Streams the allocation table of a run one column per line, as the
+ * references are processed: the reference index, the referenced page, the
+ * page in every physical frame, whether a fault occurred and the victim.
+ * Nothing is kept between lines, so memory does not depend on the trace
+ * length and output is linear in it. The writer is flushed, not closed,
+ * when the simulation finishes.
+ */
+public class AllocationTableWriter implements SimulationListener {
+
+  /**
+   * The enum Format.
+   */
+  public enum Format {
+    /**
+     * Space aligned columns, for the console.
+     */
+    TEXT,
+    /**
+     * Comma separated values with a header line.
+     */
+    CSV
+  }
+
+  private final Writer out;
+  private final Format format;
+  private final StringBuilder line = new StringBuilder();
+
+  /**
+   * Instantiates a new Allocation table writer.
+   *
+   * @param out the writer to stream to, best buffered
+   * @param format the format of the lines
+   */
+  public AllocationTableWriter(Writer out, Format format) {
+    this.out = out;
+    this.format = format;
+  }
+
+  @Override
+  public void simulationStarted(Simulation simulation) {
+    line.setLength(0);
+    if (format == Format.CSV) {
+      line.append("reference,page");
+      for (int i = 0; i < simulation.getMemoryCapacity(); i++) {
+        line.append(",frame").append(i);
+      }
+      line.append(",fault,victim\n");
+    } else {
+      line.append(String.format("%10s %10s %5s %10s  %s\n",
+          "reference", "page", "fault", "victim", "physical frames"));
+    }
+    write();
+  }
+
+  @Override
+  public void pageHit(Simulation simulation, Page page) {
+    writeColumn(simulation, page, false, null);
+  }
+
+  @Override
+  public void pageFault(Simulation simulation, Page page, Page victim) {
+    writeColumn(simulation, page, true, victim);
+  }
+
+  @Override
+  public void simulationFinished(Simulation simulation, SimulationResult result) {
+    try {
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the column of the current reference.
+   */
+  private void writeColumn(Simulation simulation, Page page, boolean fault, Page victim) {
+    List<Page> frames = simulation.getAllocatedPages();
+    line.setLength(0);
+    if (format == Format.CSV) {
+      line.append(simulation.getCurrentIdx()).append(',').append(page.getNumber());
+      for (int i = 0; i < simulation.getMemoryCapacity(); i++) {
+        line.append(',');
+        if (i < frames.size()) {
+          line.append(frames.get(i).getNumber());
+        }
+      }
+      line.append(',').append(fault ? "F" : "").append(',');
+      if (victim != null) {
+        line.append(victim.getNumber());
+      }
+    } else {
+      pad(String.valueOf(simulation.getCurrentIdx()), 10);
+      pad(page.getValue(), 11);
+      pad(fault ? "F" : "", 6);
+      pad(victim == null ? "" : victim.getValue(), 11);
+      line.append(' ');
+      for (int i = 0; i < simulation.getMemoryCapacity(); i++) {
+        line.append(' ').append(i < frames.size() ? frames.get(i).getValue() : "-");
+      }
+    }
+    line.append('\n');
+    write();
+  }
+
+  private void pad(String value, int width) {
+    for (int i = value.length(); i < width; i++) {
+      line.append(' ');
+    }
+    line.append(value);
+  }
+
+  private void write() {
+    try {
+      out.append(line);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
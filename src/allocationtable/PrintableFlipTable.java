@@ -61,8 +61,9 @@ public interface PrintableFlipTable {
               String.format("Row %s's %s columns != %s columns", row + 1, rowData.length, columns));
         }
         for (int column = 0; column < columns; column++) {
-          for (String rowDataLine : rowData[column].split("\\n")) {
-            String rowDataWithoutColor = rowDataLine.replaceAll(ANSI_COLORS, "");
+          for (String rowDataLine : lines(rowData[column])) {
+            String rowDataWithoutColor = rowDataLine.indexOf('\u001B') < 0
+                ? rowDataLine : rowDataLine.replaceAll(ANSI_COLORS, "");
             columnWidths[column] = Math.max(columnWidths[column], rowDataWithoutColor.length());
           }
         }
@@ -109,7 +110,7 @@ public interface PrintableFlipTable {
       for (int line = 0, lines = 1; line < lines; line++) {
         for (int column = 0; column < columns; column++) {
           out.append(column == 0 ? '║' : '│');
-          String[] cellLines = data[column].split("\\n");
+          String[] cellLines = lines(data[column]);
           lines = Math.max(lines, cellLines.length);
           String cellLine = line < cellLines.length ? cellLines[line] : "";
           out.append(pad(columnWidths[column], cellLine));
@@ -118,8 +119,17 @@ public interface PrintableFlipTable {
       }
     }
 
+    /** Splits a cell into lines, without a regex for the common single line cell. */
+    private static String[] lines(String data) {
+      return data.indexOf('\n') < 0 ? new String[] {data} : data.split("\\n");
+    }
+
     private static String pad(int width, String data) {
-      return String.format(" %1$-" + width + "s ", data);
+      StringBuilder padded = new StringBuilder(width + 2).append(' ').append(data);
+      for (int i = data.length(); i <= width; i++) {
+        padded.append(' ');
+      }
+      return padded.toString();
     }
   }
 
@@ -1,18 +1,34 @@
 package commandline;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.io.IOException;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import simulation.*;
+import trace.TraceReader;
+import workload.Workload;
+import workload.WorkloadGenerator;
+import workload.Workloads;
 
 /**
  * The type Command line runner.
  */
 public class CommandLineRunner implements Runner {
 
+  /**
+   * Workload of generated reference strings: pages 0 to 9, alternating every
+   * ten references between a skewed working set and a loop, so the
+   * algorithms behave differently.
+   */
+  private static final Workload GENERATED_WORKLOAD = Workloads.phases(10,
+      Workloads.zipf(7, 1.0), Workloads.loop(6).offset(4));
+
+  /**
+   * Menu option of the first policy, the others follow in {@link Policies#all()} order.
+   */
+  private static final int FIRST_POLICY_OPTION = 4;
+
   private Integer memoryCapacity = 4;
-  private List<String> referenceList = new ArrayList<>();
+  private ReferenceTrace.Builder referenceTrace = new ReferenceTrace.Builder();
 
   /**
    * Instantiates a new Command line runner.
@@ -23,7 +39,7 @@ public class CommandLineRunner implements Runner {
     if (args.length > 0) {
       try {
         int input = parseAsInt(args[0]);
-        if (input < 10 && input > 0) {
+        if (input > 0) {
           this.memoryCapacity = input;
         }
         else {
@@ -45,7 +61,8 @@ public class CommandLineRunner implements Runner {
   public void run() {
     while (true) {
       showMainMenu();
-      switch (getUserInput()) {
+      String input = getUserInput();
+      switch (input) {
         case "0":
           //Will exit the program
           System.out.print("Program exited");
@@ -61,28 +78,14 @@ public class CommandLineRunner implements Runner {
             displayCurrentReferenceString();
           }
           break;
-        case "4":
-          if (isReferenceStringSet()) {
-            new FIFO_Algorithm(memoryCapacity,referenceList);
-          }
-          break;
-        case "5":
-          if (isReferenceStringSet()) {
-            new OPT_Algorithm(memoryCapacity,referenceList);
-          }
-          break;
-        case "6":
-          if (isReferenceStringSet()) {
-            new LRU_Algorithm(memoryCapacity,referenceList);
-          }
-          break;
-        case "7":
-          if (isReferenceStringSet()) {
-            new LFU_Algorithm(memoryCapacity,referenceList);
-          }
-          break;
         default:
-          printErrorText("Command not recognized");
+          ReplacementPolicyProvider policy = selectedPolicy(input);
+          if (policy == null) {
+            printErrorText("Command not recognized");
+          } else if (isReferenceStringSet()) {
+            SimulationEngine.run(policy, memoryCapacity, referenceTrace.build(),
+                new ConsoleNarrator());
+          }
           break;
       }
     }
@@ -94,19 +97,33 @@ public class CommandLineRunner implements Runner {
   @Override
   public void showMainMenu() {
     //Display menu
-    System.out.print(
+    StringBuilder menu = new StringBuilder(
         "\nMAIN MENU:\n" +
         "\t0) Exit\n" +
         "\t1) Read reference string\n" +
         "\t2) Generate reference string\n" +
-        "\t3) Display current reference string\n" +
-        "\t4) Simulate FIFO\n" +
-        "\t5) Simulate OPT\n" +
-        "\t6) Simulate LRU\n" +
-        "\t7) Simulate LFU\n" +
-        
-        "Enter your selection: ");
+        "\t3) Display current reference string\n");
+    List<ReplacementPolicyProvider> policies = Policies.all();
+    for (int i = 0; i < policies.size(); i++) {
+      menu.append("\t").append(FIRST_POLICY_OPTION + i).append(") Simulate ")
+          .append(policies.get(i).displayName()).append("\n");
+    }
+    System.out.print(menu.append("Enter your selection: "));
+
+  }
 
+  /**
+   * Gets the policy of a menu selection.
+   * @param input the selection
+   * @return the policy, null if the selection is no policy
+   */
+  private ReplacementPolicyProvider selectedPolicy(String input) {
+    if (!input.matches("[\\d]{1,9}")) {
+      return null;
+    }
+    int option = Integer.parseInt(input) - FIRST_POLICY_OPTION;
+    List<ReplacementPolicyProvider> policies = Policies.all();
+    return option >= 0 && option < policies.size() ? policies.get(option) : null;
   }
 
   /**
@@ -115,13 +132,16 @@ public class CommandLineRunner implements Runner {
   @Override
   public void readReferenceString() {
     try {
-      System.out.println("Enter reference string. Integers 0 thru 9 only allowed(ex. 0 3 4...).");
-      String[] input = getUserInput().replaceAll("[,\\s]", "").split("");
+      System.out.println("Enter reference string. Page numbers separated by spaces or commas"
+          + " (ex. 0 3 12...).");
+      String[] input = getUserInput().trim().split("[,\\s]+");
       for (String s : input) {
-        if (s.matches("[\\D]")|| s.length()<=0) {
+        if (!s.matches("\\d{1,18}")) {
           throw new InvalidInputException();
         }
-        referenceList.add(s);
+      }
+      for (String s : input) {
+        referenceTrace.add(Long.parseLong(s));
       }
     }catch (InvalidInputException ex){
       printErrorText(ex.getMessage());
@@ -138,13 +158,18 @@ public class CommandLineRunner implements Runner {
     
     try {
       String str = getUserInput();
-      if (!str.matches("[\\d]+")) {
+      if (!str.matches("[\\d]{1,9}")) {
         throw new InvalidInputException();
       }
-      new Random().ints(Integer.parseInt(str), 0, 9)
-          .forEachOrdered(i -> referenceList.add(String.valueOf(i)));
+      int length = Integer.parseInt(str);
+      try (TraceReader trace = WorkloadGenerator.stream(GENERATED_WORKLOAD, length,
+          new SplittableRandom().nextLong())) {
+        for (long page = trace.next(); page != TraceReader.END; page = trace.next()) {
+          referenceTrace.add(page);
+        }
+      }
       
-    } catch (InvalidInputException ex) {
+    } catch (IOException ex) {
       printErrorText(ex.getMessage());
       generateReferenceString();
     }
@@ -155,7 +180,7 @@ public class CommandLineRunner implements Runner {
    */
   @Override
   public void displayCurrentReferenceString() {
-    System.out.println("Reference string: " + Arrays.toString(referenceList.toArray()));
+    System.out.println("Reference string: " + referenceTrace.build());
   }
 
   /**
@@ -164,7 +189,7 @@ public class CommandLineRunner implements Runner {
    */
   @Override
   public boolean isReferenceStringSet() {
-    if (referenceList.isEmpty()) {
+    if (referenceTrace.size() == 0) {
       printErrorText("No reference string is set.");
       return false;
     }
@@ -0,0 +1,645 @@
+package commandline;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import allocationtable.AllocationTableWriter;
+import eventlog.EventLogHeader.Compression;
+import eventlog.EventLogWriter;
+import simulation.Algorithm;
+import simulation.DynamicAllocationResult;
+import simulation.DynamicAllocationSimulation;
+import simulation.MissRatioCurve;
+import simulation.MultiProcessResult;
+import simulation.MultiProcessSimulation;
+import simulation.MultiProcessTrace;
+import simulation.Prefetcher;
+import simulation.Policies;
+import simulation.ReferenceTrace;
+import simulation.ReplacementPolicyProvider;
+import simulation.ResidentSetController;
+import simulation.SimulationEngine;
+import simulation.SampledCurve;
+import simulation.ShardsSampler;
+import simulation.Simulation;
+import simulation.SimulationResult;
+import simulation.StackDistanceAnalyzer;
+import simulation.Sweep;
+import trace.PackedTraceReader;
+import trace.PageSize;
+import trace.TraceFormat;
+import tlb.CostModel;
+import tlb.Tlb;
+import trace.TraceReader;
+import workload.Workload;
+import workload.WorkloadGenerator;
+import workload.Workloads;
+
+/**
+ * The type Trace runner.
+ * Non-interactive runner simulating a trace file from disk or a generated
+ * workload.
+ * <pre>
+ * usage: --trace file [--format text|int32|int64|packed] [--page-size 4K]
+ *        | --workload spec --length 100M [--seed 1] [--phase-length 1M]
+ *        [--algorithm FIFO|OPT|LRU|LFU|LFU_DA|LFU_DECAY|CLOCK|SECOND_CHANCE
+ *                     |ENHANCED_SECOND_CHANCE|CLOCK_PRO
+ *                     |ARC|TWO_Q|LIRS|name|display name|ALL]
+ *        [--frames 4|3,4,8|1..64/2]
+ *        [--threads N] [--output text|csv|json] [--mrc exact|rate:0.01|size:8192]
+ *        [--table text|csv] [--table-file file]
+ *        [--events file] [--events-compression none|deflate]
+ *        [--processes global|local] [--allocation equal|proportional|priority]
+ *        [--priorities 1,2] [--process-count 8] [--quantum 100]
+ *        [--controller ws:WINDOW|pff:THRESHOLD]
+ *        [--tlb 64:4[:lru|fifo|random][,1536:12]] [--cost mem=100,l1=1,l2=5,walk=50,...]
+ *        [--prefetch seq:MAX_WINDOW|stride:DEGREE|markov:DEGREE]
+ * </pre>
+ * With a page size the trace is read as virtual addresses and mapped to page
+ * numbers; without one it already holds page numbers. A packed trace that
+ * records the page size of its page numbers takes no page size, and its
+ * swap traffic is counted in the recorded one. Text traces may mark
+ * writes, and runs over them report swap-ins, swap-outs of dirty pages and
+ * the swap traffic in bytes of the page size. A single frame count
+ * with text output streams the trace from disk; several frame counts, or CSV
+ * and JSON output, load it once and run a parallel {@link Sweep}. With
+ * {@code --mrc exact} the LRU miss ratio curve at all frame counts is computed
+ * in one streaming pass instead, see {@link StackDistanceAnalyzer}. A sampling
+ * rate or sample size estimates the curve of the selected algorithms, LRU by
+ * default, from a spatial sample, see {@link ShardsSampler}. Workloads are
+ * streamed from the generator, see {@link Workloads#parse(String, long)}.
+ * Algorithms are looked up in {@link Policies}, so policies registered as
+ * services on the class path can be selected by name or display name.
+ * With {@code --table} the allocation table of a single frame count is
+ * streamed one reference per line to the console or a file, see
+ * {@link AllocationTableWriter}.
+ * With {@code --events} every hit, fault and eviction of a single algorithm
+ * and frame count is recorded to a columnar event log, see
+ * {@link EventLogWriter}.
+ * With {@code --processes} the trace holds process id and page number pairs,
+ * or the workload is generated once per process and interleaved round
+ * robin, and the processes share the frames with global or local
+ * replacement, see {@link MultiProcessSimulation}. With {@code --controller}
+ * the resident set of the process, or of every process with
+ * {@code --processes local}, is sized by a working-set or page-fault-frequency
+ * controller while it runs, and thrashing is reported whenever the resident
+ * sets demand more than the frames, see {@link DynamicAllocationSimulation}.
+ * With {@code --tlb} every reference of a single frame count is first
+ * translated by a one or two level TLB, and the effective memory access
+ * time is estimated from the costs of TLB hits, page walks and faults, see
+ * {@link Tlb}. With {@code --prefetch} pages predicted by sequential
+ * read-ahead, stride detection or a next-page predictor are loaded ahead of
+ * demand, see {@link Prefetcher}, and the faults avoided are measured
+ * against a run without prefetching.
+ */
+public class TraceRunner {
+  private Path trace;
+  private TraceFormat format = TraceFormat.TEXT;
+  private long pageSize = 0;
+  private String workloadSpec;
+  private long length = -1;
+  private long seed = 1;
+  private long phaseLength = WorkloadGenerator.BLOCK;
+  private Workload workload;
+  private List<ReplacementPolicyProvider> algorithms;
+  private int[] frameCounts = {4};
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private String output = "text";
+  private boolean missRatioCurve = false;
+  private ShardsSampler sampler;
+  private AllocationTableWriter.Format tableFormat;
+  private Path tableFile;
+  private Path events;
+  private Compression eventsCompression = Compression.NONE;
+  private MultiProcessSimulation.Replacement processes;
+  private MultiProcessSimulation.Allocation allocation =
+      MultiProcessSimulation.Allocation.PROPORTIONAL;
+  private int[] priorities;
+  private int processCount = 8;
+  private int quantum = 100;
+  private Supplier<ResidentSetController> controller;
+  private String tlb;
+  private CostModel costs = CostModel.DEFAULT;
+  private Supplier<Prefetcher> prefetcher;
+
+  /**
+   * Instantiates a new Trace runner.
+   *
+   * @param args the options
+   * @throws IllegalArgumentException if an option is unknown or invalid
+   */
+  public TraceRunner(String[] args) {
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        throw new IllegalArgumentException("Missing value for " + args[i]);
+      }
+      String value = args[i + 1];
+      switch (args[i]) {
+        case "--trace":
+          trace = Paths.get(value);
+          break;
+        case "--workload":
+          workloadSpec = value;
+          break;
+        case "--length":
+          length = WorkloadGenerator.parseCount(value);
+          break;
+        case "--seed":
+          seed = Long.parseLong(value);
+          break;
+        case "--phase-length":
+          phaseLength = WorkloadGenerator.parseCount(value);
+          break;
+        case "--format":
+          format = TraceFormat.valueOf(value.toUpperCase()
+              .replace("INT32", "INT32_LE").replace("INT64", "INT64_LE"));
+          break;
+        case "--page-size":
+          pageSize = PageSize.parse(value);
+          break;
+        case "--algorithm":
+          algorithms = value.equalsIgnoreCase("ALL")
+              ? Policies.all() : Collections.singletonList(Policies.get(value));
+          break;
+        case "--frames":
+          frameCounts = parseFrames(value);
+          break;
+        case "--threads":
+          threads = Integer.parseInt(value);
+          if (threads <= 0) {
+            throw new IllegalArgumentException("Threads must be positive");
+          }
+          break;
+        case "--output":
+          output = value.toLowerCase();
+          if (!output.matches("text|csv|json")) {
+            throw new IllegalArgumentException("Unknown output " + value);
+          }
+          break;
+        case "--mrc":
+          missRatioCurve = true;
+          if (value.startsWith("rate:")) {
+            sampler = ShardsSampler.fixedRate(Double.parseDouble(value.substring(5)));
+          } else if (value.startsWith("size:")) {
+            sampler = ShardsSampler.fixedSize(Integer.parseInt(value.substring(5)));
+          } else if (!value.equalsIgnoreCase("exact")) {
+            throw new IllegalArgumentException("Unknown miss ratio curve mode " + value);
+          }
+          break;
+        case "--table":
+          tableFormat = AllocationTableWriter.Format.valueOf(value.toUpperCase());
+          break;
+        case "--table-file":
+          tableFile = Paths.get(value);
+          break;
+        case "--events":
+          events = Paths.get(value);
+          break;
+        case "--events-compression":
+          eventsCompression = Compression.valueOf(value.toUpperCase());
+          break;
+        case "--processes":
+          processes = MultiProcessSimulation.Replacement.valueOf(value.toUpperCase());
+          break;
+        case "--allocation":
+          allocation = MultiProcessSimulation.Allocation.valueOf(value.toUpperCase());
+          break;
+        case "--priorities":
+          priorities = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+          break;
+        case "--process-count":
+          processCount = Integer.parseInt(value);
+          if (processCount <= 0 || processCount > MultiProcessTrace.MAX_PID + 1) {
+            throw new IllegalArgumentException("Invalid process count " + value);
+          }
+          break;
+        case "--quantum":
+          quantum = Integer.parseInt(value);
+          if (quantum <= 0) {
+            throw new IllegalArgumentException("Quantum must be positive");
+          }
+          break;
+        case "--tlb":
+          tlb = value;
+          Tlb.parse(tlb, costs);
+          break;
+        case "--cost":
+          costs = CostModel.parse(value);
+          break;
+        case "--prefetch":
+          prefetcher = Prefetcher.parse(value);
+          break;
+        case "--controller":
+          controller = ResidentSetController.parse(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+    if (tableFile != null && tableFormat == null) {
+      tableFormat = AllocationTableWriter.Format.CSV;
+    }
+    if (tableFormat != null && (missRatioCurve || frameCounts.length > 1)) {
+      throw new IllegalArgumentException("An allocation table needs a single frame count");
+    }
+    if (events != null && (tableFormat != null || missRatioCurve || frameCounts.length > 1
+        || algorithms == null || algorithms.size() > 1)) {
+      throw new IllegalArgumentException(
+          "An event log needs a single algorithm and frame count, and no table");
+    }
+    if (processes != null && (events != null || tableFormat != null || missRatioCurve
+        || frameCounts.length > 1)) {
+      throw new IllegalArgumentException(
+          "Several processes need a single frame count, and no table, event log or curve");
+    }
+    if (controller != null && (processes == MultiProcessSimulation.Replacement.GLOBAL
+        || events != null || tableFormat != null || missRatioCurve || frameCounts.length > 1)) {
+      throw new IllegalArgumentException("A resident set controller needs local replacement,"
+          + " a single frame count, and no table, event log or curve");
+    }
+    if (tlb != null && (processes != null || controller != null || events != null
+        || tableFormat != null || missRatioCurve || frameCounts.length > 1)) {
+      throw new IllegalArgumentException("A TLB needs a single process and frame count,"
+          + " and no table, event log or curve");
+    }
+    if (prefetcher != null && (processes != null || controller != null || events != null
+        || tableFormat != null || missRatioCurve || frameCounts.length > 1)) {
+      throw new IllegalArgumentException("Prefetching needs a single process and frame count,"
+          + " and no table, event log or curve");
+    }
+    if (missRatioCurve && sampler == null && algorithms != null
+        && (algorithms.size() > 1 || algorithms.get(0) != Algorithm.LRU)) {
+      throw new IllegalArgumentException("An exact miss ratio curve is only computed for LRU,"
+          + " estimate other algorithms with --mrc rate:0.01");
+    }
+    if (processes != null && pageSize > 0) {
+      throw new IllegalArgumentException("A trace of several processes holds page numbers");
+    }
+    if (workloadSpec != null) {
+      if (length < 0) {
+        throw new IllegalArgumentException("A workload needs a length, use --length 1M");
+      }
+      workload = Workloads.parse(workloadSpec, phaseLength);
+    } else if (trace == null) {
+      throw new IllegalArgumentException("No trace file given, use --trace file");
+    }
+  }
+
+  /**
+   * Opens the trace file or starts generating the workload.
+   *
+   * @return the trace
+   * @throws IOException if the trace file cannot be opened
+   */
+  private TraceReader open() throws IOException {
+    return workload != null ? WorkloadGenerator.stream(workload, length, seed)
+        : format.open(trace, pageSize);
+  }
+
+  /**
+   * Gets the page size swap traffic is counted in: the one recorded in a
+   * packed trace, else the one given, else 4K.
+   *
+   * @param reader the reader of the trace
+   * @return the page size in bytes
+   */
+  private long swapPageSize(TraceReader reader) {
+    if (reader instanceof PackedTraceReader) {
+      long recorded = ((PackedTraceReader) reader).getHeader().getPageSize();
+      if (recorded > 0) {
+        return recorded;
+      }
+    }
+    return pageSize > 0 ? pageSize : PageSize.parse("4K");
+  }
+
+  /**
+   * Parses frame counts given as a number, a comma separated list or a range
+   * from..to with an optional /step.
+   *
+   * @param value the option value
+   * @return the frame counts
+   */
+  private static int[] parseFrames(String value) {
+    int[] frames;
+    if (value.contains("..")) {
+      String[] range = value.split("\\.\\.|/");
+      int from = Integer.parseInt(range[0]);
+      int to = Integer.parseInt(range[1]);
+      int step = range.length > 2 ? Integer.parseInt(range[2]) : 1;
+      if (step <= 0 || to < from) {
+        throw new IllegalArgumentException("Invalid frame range " + value);
+      }
+      frames = IntStream.iterate(from, n -> n <= to, n -> n + step).toArray();
+    } else {
+      frames = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+    if (Arrays.stream(frames).anyMatch(n -> n <= 0)) {
+      throw new IllegalArgumentException("Frames must be positive");
+    }
+    return frames;
+  }
+
+  /**
+   * Simulates the trace with every selected algorithm and frame count.
+   */
+  public void run() {
+    if (controller != null) {
+      controlled();
+      return;
+    }
+    if (missRatioCurve) {
+      if (sampler == null) {
+        curve();
+      } else {
+        sampledCurves();
+      }
+      return;
+    }
+    if (algorithms == null) {
+      algorithms = Policies.all();
+    }
+    if (tableFormat != null) {
+      table();
+      return;
+    }
+    if (events != null) {
+      events();
+      return;
+    }
+    if (processes != null) {
+      processes();
+      return;
+    }
+    if (frameCounts.length > 1 || !output.equals("text")) {
+      sweep();
+      return;
+    }
+    for (ReplacementPolicyProvider algorithm : algorithms) {
+      if (prefetcher != null && algorithm.requiresLookahead()) {
+        System.out.printf("%-9s cannot be combined with prefetching\n", algorithm.name());
+        continue;
+      }
+      try (TraceReader reader = open()) {
+        long start = System.nanoTime();
+        Tlb translation = tlb == null ? null : Tlb.parse(tlb, costs);
+        SimulationResult result;
+        if (prefetcher == null) {
+          result = SimulationEngine.run(algorithm, frameCounts[0], reader, translation);
+        } else {
+          Simulation simulation = new Simulation(frameCounts[0], algorithm);
+          simulation.setRecordVictims(false);
+          simulation.setListener(translation);
+          simulation.setPrefetcher(prefetcher.get());
+          result = simulation.runSimulation(reader);
+        }
+        System.out.printf("%-9s %s time=%.2fs\n", algorithm.name(), result,
+            (System.nanoTime() - start) / 1e9);
+        System.out.printf("%-9s swapBytes=%d\n", "",
+            result.getSwapBytes(swapPageSize(reader)));
+        if (translation != null) {
+          System.out.printf("%-9s %s\n", "", translation);
+        }
+        if (prefetcher != null) {
+          try (TraceReader again = open()) {
+            long baseline = SimulationEngine.run(algorithm, frameCounts[0], again).getPageFaults();
+            System.out.printf("%-9s demandFaults=%d faultsAvoided=%d\n", "", baseline,
+                baseline - result.getPageFaults());
+          }
+        }
+      } catch (IOException e) {
+        System.out.println("Error: " + e.getMessage());
+        return;
+      }
+    }
+  }
+
+  /**
+   * Streams the allocation table of every selected algorithm, followed by
+   * its result.
+   */
+  private void table() {
+    Writer out = null;
+    try {
+      out = tableFile == null ? new BufferedWriter(new OutputStreamWriter(System.out))
+          : Files.newBufferedWriter(tableFile);
+      AllocationTableWriter writer = new AllocationTableWriter(out, tableFormat);
+      for (ReplacementPolicyProvider algorithm : algorithms) {
+        try (TraceReader reader = open()) {
+          SimulationResult result =
+              SimulationEngine.run(algorithm, frameCounts[0], reader, writer);
+          System.out.printf("%-9s %s\n", algorithm.name(), result);
+        }
+      }
+      if (tableFile != null) {
+        out.close();
+      }
+    } catch (IOException | UncheckedIOException e) {
+      System.out.println("Error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Records the event log of the selected algorithm, then prints its result.
+   */
+  private void events() {
+    ReplacementPolicyProvider algorithm = algorithms.get(0);
+    try (TraceReader reader = open();
+        EventLogWriter writer = new EventLogWriter(events, eventsCompression)) {
+      long start = System.nanoTime();
+      SimulationResult result = SimulationEngine.run(algorithm, frameCounts[0], reader, writer);
+      System.out.printf("%-9s %s time=%.2fs\n", algorithm.name(), result,
+          (System.nanoTime() - start) / 1e9);
+    } catch (IOException | UncheckedIOException e) {
+      System.out.println("Error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Loads or generates the references of every process and simulates them
+   * sharing the frames, printing the total and every process.
+   */
+  private void processes() {
+    MultiProcessTrace multiProcessTrace;
+    try {
+      multiProcessTrace = loadProcesses();
+    } catch (IOException e) {
+      System.out.println("Error: " + e.getMessage());
+      return;
+    }
+    List<MultiProcessResult> results = new ArrayList<>();
+    for (ReplacementPolicyProvider algorithm : algorithms) {
+      MultiProcessSimulation simulation =
+          new MultiProcessSimulation(algorithm, frameCounts[0], processes);
+      simulation.setAllocation(allocation);
+      if (priorities != null) {
+        simulation.setPriorities(priorities);
+      }
+      simulation.setParallelism(threads);
+      long start = System.nanoTime();
+      MultiProcessResult result;
+      try {
+        result = simulation.run(multiProcessTrace);
+      } catch (IllegalArgumentException e) {
+        System.out.println("Error: " + e.getMessage());
+        return;
+      }
+      if (output.equals("text")) {
+        System.out.printf("%-9s %s\ntime=%.2fs\n", algorithm.name(), result,
+            (System.nanoTime() - start) / 1e9);
+      }
+      results.add(result);
+    }
+    if (output.equals("csv")) {
+      System.out.print(MultiProcessResult.toCsv(results));
+    } else if (output.equals("json")) {
+      System.out.print(MultiProcessResult.toJson(results));
+    }
+  }
+
+  /**
+   * Loads the trace of every process, or generates the workload once per
+   * process and interleaves the traces round robin.
+   *
+   * @return the trace
+   * @throws IOException if the trace file cannot be read
+   */
+  private MultiProcessTrace loadProcesses() throws IOException {
+    if (workload == null) {
+      try (TraceReader reader = open()) {
+        return MultiProcessTrace.read(reader);
+      }
+    }
+    List<ReferenceTrace> traces = new ArrayList<>();
+    for (int pid = 0; pid < processCount; pid++) {
+      traces.add(WorkloadGenerator.generate(workload,
+          (int) Math.min(Integer.MAX_VALUE, length / processCount), seed + pid, threads));
+    }
+    return MultiProcessTrace.interleave(traces, quantum);
+  }
+
+  /**
+   * Sizes the resident set of the process, or of every process, with the
+   * selected controller and prints the total, the thrashing detected and
+   * every process.
+   */
+  private void controlled() {
+    MultiProcessTrace multiProcessTrace;
+    long start = System.nanoTime();
+    try {
+      if (processes != null) {
+        multiProcessTrace = loadProcesses();
+      } else {
+        try (TraceReader reader = open()) {
+          multiProcessTrace = MultiProcessTrace.interleave(
+              Collections.singletonList(ReferenceTrace.read(reader)), Integer.MAX_VALUE);
+        }
+      }
+    } catch (IOException e) {
+      System.out.println("Error: " + e.getMessage());
+      return;
+    }
+    DynamicAllocationResult result =
+        new DynamicAllocationSimulation(controller, frameCounts[0]).run(multiProcessTrace);
+    if (output.equals("csv")) {
+      System.out.print(result.toCsv());
+    } else {
+      System.out.printf("%s\ntime=%.2fs\n", result, (System.nanoTime() - start) / 1e9);
+    }
+  }
+
+  /**
+   * Loads the trace once and sweeps all algorithms and frame counts in parallel.
+   */
+  private void sweep() {
+    ReferenceTrace referenceTrace;
+    try (TraceReader reader = open()) {
+      referenceTrace = ReferenceTrace.read(reader);
+    } catch (IOException e) {
+      System.out.println("Error: " + e.getMessage());
+      return;
+    }
+    List<Sweep.Cell> cells = Sweep.run(referenceTrace, algorithms, frameCounts,
+        threads);
+    switch (output) {
+      case "csv":
+        System.out.print(Sweep.toCsv(cells));
+        break;
+      case "json":
+        System.out.print(Sweep.toJson(cells));
+        break;
+      default:
+        for (Sweep.Cell cell : cells) {
+          System.out.printf("%-9s %s time=%.2fs\n", cell.getAlgorithm().name(), cell.getResult(),
+              cell.getNanos() / 1e9);
+        }
+    }
+  }
+
+  /**
+   * Computes the LRU miss ratio curve in one pass and prints it at every
+   * selected frame count.
+   */
+  private void curve() {
+    MissRatioCurve curve;
+    long start = System.nanoTime();
+    try (TraceReader reader = open()) {
+      curve = StackDistanceAnalyzer.analyze(reader);
+    } catch (IOException e) {
+      System.out.println("Error: " + e.getMessage());
+      return;
+    }
+    switch (output) {
+      case "csv":
+        System.out.print(curve.toCsv(frameCounts));
+        break;
+      case "json":
+        System.out.print(curve.toJson(frameCounts));
+        break;
+      default:
+        for (int frames : frameCounts) {
+          System.out.printf("%-9s %s\n", Algorithm.LRU, curve.getResult(frames));
+        }
+        System.out.printf("time=%.2fs\n", (System.nanoTime() - start) / 1e9);
+    }
+  }
+
+  /**
+   * Estimates the miss ratio curve of every selected algorithm from a sample
+   * of the trace, with the standard error of every point.
+   */
+  private void sampledCurves() {
+    for (ReplacementPolicyProvider algorithm
+        : algorithms == null ? Collections.singletonList(Algorithm.LRU) : algorithms) {
+      SampledCurve curve;
+      long start = System.nanoTime();
+      try (TraceReader reader = open()) {
+        curve = sampler.estimate(algorithm, frameCounts, reader);
+      } catch (IOException e) {
+        System.out.println("Error: " + e.getMessage());
+        return;
+      }
+      switch (output) {
+        case "csv":
+          System.out.print(curve.toCsv());
+          break;
+        case "json":
+          System.out.print(curve.toJson());
+          break;
+        default:
+          System.out.printf("%s time=%.2fs\n", curve, (System.nanoTime() - start) / 1e9);
+      }
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package eventlog;
+
+/**
+ * The enum Event kind.
+ * What happened on a reference, stored in two bits.
+ */
+public enum EventKind {
+  /**
+   * The page was already in its frame.
+   */
+  HIT,
+  /**
+   * Page fault served by a free frame.
+   */
+  LOAD,
+  /**
+   * Page fault served by evicting a victim from its frame.
+   */
+  REPLACE
+}
@@ -0,0 +1,159 @@
+package eventlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * The type Event log header.
+ * Header of a simulation event log file. All fields are little-endian:
+ * <pre>
+ *   0  magic        4 bytes  "PEVL"
+ *   4  version      1 byte   1
+ *   5  compression  1 byte   0 = none, 1 = deflate per block
+ *   6  reserved     2 bytes
+ *   8  frames       4 bytes  physical frames of the simulation
+ *  12  reserved     4 bytes
+ *  16  events       8 bytes  number of events, one per reference
+ *  24  pages        8 bytes  number of distinct pages
+ * </pre>
+ * Blocks of up to {@link EventLogWriter#BLOCK} events follow at
+ * {@link #SIZE}. Each block starts with its event count, its decoded length
+ * and its stored length as 4 byte ints, then the stored bytes. Decoded, a
+ * block holds five columns, each prefixed by its length in bytes:
+ * <pre>
+ *   kinds      2 bits per event, see {@link EventKind}, four events per byte
+ *   pages      unsigned LEB128 varint page id per event
+ *   frames     varint frame per event
+ *   victims    varint victim page id per {@link EventKind#REPLACE} event
+ *   new pages  varint page number of every page first referenced in the
+ *              block, in id order
+ * </pre>
+ * The reference index of an event is its position in the log.
+ */
+public final class EventLogHeader {
+  /**
+   * Size of the header in bytes.
+   */
+  public static final int SIZE = 32;
+  /**
+   * Size of the header of each block in bytes.
+   */
+  public static final int BLOCK_HEADER_SIZE = 12;
+
+  private static final int MAGIC = 'P' | 'E' << 8 | 'V' << 16 | 'L' << 24;
+  private static final byte VERSION = 1;
+
+  /**
+   * The enum Compression.
+   * How blocks are stored.
+   */
+  public enum Compression {
+    NONE,
+    DEFLATE
+  }
+
+  private final Compression compression;
+  private final int frames;
+  private final long events;
+  private final long pages;
+
+  /**
+   * Instantiates a new Event log header.
+   *
+   * @param compression the compression of the blocks
+   * @param frames the number of physical frames
+   * @param events the number of events
+   * @param pages the number of distinct pages
+   */
+  public EventLogHeader(Compression compression, int frames, long events, long pages) {
+    this.compression = compression;
+    this.frames = frames;
+    this.events = events;
+    this.pages = pages;
+  }
+
+  /**
+   * Reads the header at the start of a file.
+   *
+   * @param channel the channel
+   * @return the header
+   * @throws IOException if the file is not an event log
+   */
+  public static EventLogHeader read(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, buffer.position()) < 0) {
+        throw new IOException("Not an event log: file too short");
+      }
+    }
+    buffer.flip();
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("Not an event log: bad magic");
+    }
+    if (buffer.get() != VERSION) {
+      throw new IOException("Unsupported event log version");
+    }
+    int compression = buffer.get();
+    if (compression < 0 || compression >= Compression.values().length) {
+      throw new IOException("Unknown event log compression " + compression);
+    }
+    buffer.getShort();
+    int frames = buffer.getInt();
+    buffer.getInt();
+    long events = buffer.getLong();
+    long pages = buffer.getLong();
+    return new EventLogHeader(Compression.values()[compression], frames, events, pages);
+  }
+
+  /**
+   * Writes the header at the start of a file.
+   *
+   * @param channel the channel
+   * @throws IOException if the header cannot be written
+   */
+  public void write(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC)
+        .put(VERSION)
+        .put((byte) compression.ordinal())
+        .putShort((short) 0)
+        .putInt(frames)
+        .putInt(0)
+        .putLong(events)
+        .putLong(pages)
+        .flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, buffer.position());
+    }
+  }
+
+  /**
+   * Gets compression.
+   *
+   * @return the compression of the blocks
+   */
+  public Compression getCompression() {return compression;}
+
+  /**
+   * Gets frames.
+   *
+   * @return the number of physical frames
+   */
+  public int getFrames() {return frames;}
+
+  /**
+   * Gets events.
+   *
+   * @return the number of events
+   */
+  public long getEvents() {return events;}
+
+  /**
+   * Gets pages.
+   *
+   * @return the number of distinct pages
+   */
+  public long getPages() {return pages;}
+}
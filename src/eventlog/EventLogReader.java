@@ -0,0 +1,292 @@
+package eventlog;
+
+import eventlog.EventLogHeader.Compression;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * The type Event log reader.
+ * Replays an event log, see {@link EventLogHeader}, one event at a time.
+ * Each block is memory-mapped and, when uncompressed, decoded straight out
+ * of the mapping; deflated blocks are inflated into a reused buffer. Only
+ * the page numbers of the distinct pages are kept, to resolve page ids.
+ * <pre>
+ * usage: java eventlog.EventLogReader events.pevl [--dump]
+ * </pre>
+ */
+public class EventLogReader implements Closeable {
+  private static final EventKind[] KINDS = EventKind.values();
+
+  private final FileChannel channel;
+  private final EventLogHeader header;
+  private final Inflater inflater;
+  private long position = EventLogHeader.SIZE;
+  private long reference = -1;
+  private int blockRemaining = 0;
+  private byte[] inflated = new byte[0];
+  private ByteBuffer kinds;
+  private ByteBuffer pages;
+  private ByteBuffer frames;
+  private ByteBuffer victims;
+  private ByteBuffer newPages;
+  private int kindByte;
+  private long[] pageNumbers = new long[16];
+  private int pageCount = 0;
+  private EventKind kind;
+  private int page;
+  private int frame;
+  private int victim;
+
+  /**
+   * Instantiates a new Event log reader.
+   *
+   * @param path the event log file
+   * @throws IOException if the file cannot be opened or is not an event log
+   */
+  public EventLogReader(Path path) throws IOException {
+    channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      header = EventLogHeader.read(channel);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    inflater = header.getCompression() == Compression.DEFLATE ? new Inflater() : null;
+  }
+
+  /**
+   * Gets header.
+   *
+   * @return the header of the file
+   */
+  public EventLogHeader getHeader() {
+    return header;
+  }
+
+  /**
+   * Moves to the next event.
+   *
+   * @return false after the last event
+   * @throws IOException if the file cannot be read or is corrupt
+   */
+  public boolean next() throws IOException {
+    if (reference + 1 >= header.getEvents()) {
+      return false;
+    }
+    if (blockRemaining == 0) {
+      readBlock(true);
+    }
+    reference++;
+    blockRemaining--;
+    try {
+      int shift = (int) ((reference & 3) << 1);
+      if (shift == 0) {
+        kindByte = kinds.get();
+      }
+      kind = KINDS[(kindByte >>> shift) & 3];
+      page = (int) getVarint(pages);
+      frame = (int) getVarint(frames);
+      victim = kind == EventKind.REPLACE ? (int) getVarint(victims) : -1;
+      if (page == pageCount) {
+        if (pageCount == pageNumbers.length) {
+          pageNumbers = Arrays.copyOf(pageNumbers, pageCount * 2);
+        }
+        pageNumbers[pageCount++] = getVarint(newPages);
+      }
+    } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+      throw new EOFException("Event log block is shorter than its header says");
+    }
+    return true;
+  }
+
+  /**
+   * Counts the events of every kind in the blocks not read yet, decoding
+   * only the kind column, and consumes the log.
+   *
+   * @return the counts, indexed by {@link EventKind#ordinal()}
+   * @throws IOException if the file cannot be read or is corrupt
+   */
+  public long[] countKinds() throws IOException {
+    long[] counts = new long[KINDS.length];
+    while (position < channel.size()) {
+      int events = readBlock(false);
+      for (int i = 0; i < events; i++) {
+        if ((i & 3) == 0) {
+          kindByte = kinds.get();
+        }
+        counts[(kindByte >>> ((i & 3) << 1)) & 3]++;
+      }
+    }
+    blockRemaining = 0;
+    reference = header.getEvents();
+    return counts;
+  }
+
+  /**
+   * Maps the next block and slices it into its columns.
+   *
+   * @param full false to only decode the kind column
+   * @return the number of events in the block
+   */
+  private int readBlock(boolean full) throws IOException {
+    ByteBuffer blockHeader = channel.map(FileChannel.MapMode.READ_ONLY, position,
+        EventLogHeader.BLOCK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    int events = blockHeader.getInt();
+    int rawLength = blockHeader.getInt();
+    int storedLength = blockHeader.getInt();
+    position += EventLogHeader.BLOCK_HEADER_SIZE;
+    if (position + storedLength > channel.size()) {
+      throw new EOFException("Event log is shorter than its blocks say");
+    }
+    ByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position, storedLength);
+    position += storedLength;
+    if (inflater != null) {
+      if (inflated.length < rawLength) {
+        inflated = new byte[rawLength];
+      }
+      byte[] stored = new byte[storedLength];
+      block.get(stored);
+      inflater.reset();
+      inflater.setInput(stored);
+      try {
+        if (inflater.inflate(inflated, 0, rawLength) != rawLength) {
+          throw new IOException("Event log block is truncated");
+        }
+      } catch (DataFormatException e) {
+        throw new IOException("Corrupt event log block: " + e.getMessage());
+      }
+      block = ByteBuffer.wrap(inflated, 0, rawLength);
+    }
+    block.order(ByteOrder.LITTLE_ENDIAN);
+    kinds = column(block);
+    if (full) {
+      pages = column(block);
+      frames = column(block);
+      victims = column(block);
+      newPages = column(block);
+    }
+    blockRemaining = events;
+    return events;
+  }
+
+  private static ByteBuffer column(ByteBuffer block) {
+    int length = block.getInt();
+    ByteBuffer column = block.slice();
+    column.limit(length);
+    block.position(block.position() + length);
+    return column;
+  }
+
+  private static long getVarint(ByteBuffer column) throws IOException {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = column.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+      if (shift >= 56) {
+        throw new IOException("Malformed varint in event log");
+      }
+    }
+  }
+
+  /**
+   * Gets reference.
+   *
+   * @return the index of the reference of the current event
+   */
+  public long getReference() {return reference;}
+
+  /**
+   * Gets kind.
+   *
+   * @return what happened on the current reference
+   */
+  public EventKind getKind() {return kind;}
+
+  /**
+   * Gets page.
+   *
+   * @return the id of the referenced page, dense in order of first reference
+   */
+  public int getPage() {return page;}
+
+  /**
+   * Gets page number.
+   *
+   * @return the number of the referenced page as it appears in the trace
+   */
+  public long getPageNumber() {return pageNumbers[page];}
+
+  /**
+   * Gets frame.
+   *
+   * @return the frame holding the referenced page
+   */
+  public int getFrame() {return frame;}
+
+  /**
+   * Gets victim.
+   *
+   * @return the id of the evicted page, -1 unless the kind is {@link EventKind#REPLACE}
+   */
+  public int getVictim() {return victim;}
+
+  /**
+   * Gets victim number.
+   *
+   * @return the number of the evicted page, -1 unless the kind is {@link EventKind#REPLACE}
+   */
+  public long getVictimNumber() {return victim < 0 ? -1 : pageNumbers[victim];}
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+    if (inflater != null) {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Prints the totals of an event log, or every event with {@code --dump}.
+   *
+   * @param args the event log file and options
+   */
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.out.println("usage: EventLogReader events.pevl [--dump]");
+      return;
+    }
+    try (EventLogReader reader = new EventLogReader(Paths.get(args[0]))) {
+      EventLogHeader header = reader.getHeader();
+      if (args.length > 1 && args[1].equals("--dump")) {
+        System.out.println("reference,kind,page,frame,victim");
+        while (reader.next()) {
+          System.out.printf("%d,%s,%d,%d,%s\n", reader.getReference(), reader.getKind(),
+              reader.getPageNumber(), reader.getFrame(),
+              reader.getVictim() < 0 ? "" : String.valueOf(reader.getVictimNumber()));
+        }
+        return;
+      }
+      long[] counts = reader.countKinds();
+      System.out.printf("frames=%d events=%d pages=%d hits=%d loads=%d replacements=%d\n",
+          header.getFrames(), header.getEvents(), header.getPages(),
+          counts[EventKind.HIT.ordinal()], counts[EventKind.LOAD.ordinal()],
+          counts[EventKind.REPLACE.ordinal()]);
+    } catch (IOException e) {
+      System.out.println("Error: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package eventlog;
+
+import eventlog.EventLogHeader.Compression;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import simulation.Simulation;
+import simulation.Simulation.Page;
+import simulation.SimulationListener;
+
+/**
+ * The type Event log writer.
+ * Records every step of a simulation into a columnar event log, see
+ * {@link EventLogHeader}. Attach it as the {@link SimulationListener} of a
+ * run; a run without it pays nothing, as the default listener is empty.
+ * Events are collected column by column into a block, and every full block
+ * is optionally deflated and written in one go, so the cost per event is a
+ * few array stores. The header is completed when the writer is closed.
+ * Runs that prefetch are not recorded.
+ */
+public class EventLogWriter implements SimulationListener, Closeable {
+  /**
+   * The number of events per block.
+   */
+  public static final int BLOCK = 1 << 16;
+
+  private static final int MAX_INT_VARINT = 5;
+  private static final int MAX_LONG_VARINT = 10;
+
+  private final FileChannel channel;
+  private final Compression compression;
+  private final Deflater deflater;
+  private final byte[] kinds = new byte[BLOCK / 4];
+  private final byte[] pages = new byte[BLOCK * MAX_INT_VARINT];
+  private final byte[] frames = new byte[BLOCK * MAX_INT_VARINT];
+  private final byte[] victims = new byte[BLOCK * MAX_INT_VARINT];
+  private final byte[] newPages = new byte[BLOCK * MAX_LONG_VARINT];
+  private int pagesLength = 0;
+  private int framesLength = 0;
+  private int victimsLength = 0;
+  private int newPagesLength = 0;
+  private int blockEvents = 0;
+  private ByteBuffer raw = ByteBuffer.allocate(0);
+  private byte[] stored = new byte[0];
+  private int memoryCapacity = 0;
+  private long events = 0;
+  private long pageCount = 0;
+
+  /**
+   * Instantiates a new Event log writer.
+   *
+   * @param path the file to create or replace
+   * @param compression the compression of the blocks
+   * @throws IOException if the file cannot be created
+   */
+  public EventLogWriter(Path path, Compression compression) throws IOException {
+    this.compression = compression;
+    deflater = compression == Compression.DEFLATE ? new Deflater(Deflater.BEST_SPEED) : null;
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    new EventLogHeader(compression, 0, 0, 0).write(channel);
+    channel.position(EventLogHeader.SIZE);
+  }
+
+  /**
+   * Starts recording a run.
+   *
+   * @param simulation the simulation
+   * @throws IllegalArgumentException if the simulation prefetches, since
+   *     the log has no event for pages loaded ahead of demand
+   */
+  @Override
+  public void simulationStarted(Simulation simulation) {
+    if (simulation.getPrefetcher() != null) {
+      throw new IllegalArgumentException("An event log cannot record prefetching");
+    }
+    memoryCapacity = simulation.getMemoryCapacity();
+  }
+
+  @Override
+  public void pageHit(Simulation simulation, Page page) {
+    record(EventKind.HIT, page, simulation.getFrame(page), null);
+  }
+
+  @Override
+  public void pageFault(Simulation simulation, Page page, Page victim) {
+    record(victim == null ? EventKind.LOAD : EventKind.REPLACE, page, simulation.getFrame(page),
+        victim);
+  }
+
+  /**
+   * Appends an event to the current block.
+   *
+   * @param kind what happened
+   * @param page the referenced page
+   * @param frame the frame holding the page afterwards
+   * @param victim the evicted page, null unless the kind is {@link EventKind#REPLACE}
+   */
+  private void record(EventKind kind, Page page, int frame, Page victim) {
+    kinds[blockEvents >>> 2] |= (byte) (kind.ordinal() << ((blockEvents & 3) << 1));
+    pagesLength = putVarint(pages, pagesLength, page.getId());
+    framesLength = putVarint(frames, framesLength, frame);
+    if (victim != null) {
+      victimsLength = putVarint(victims, victimsLength, victim.getId());
+    }
+    if (page.getId() == pageCount) {
+      newPagesLength = putVarint(newPages, newPagesLength, page.getNumber());
+      pageCount++;
+    }
+    events++;
+    if (++blockEvents == BLOCK) {
+      try {
+        flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of events recorded so far.
+   *
+   * @return the count
+   */
+  public long getEvents() {
+    return events;
+  }
+
+  private static int putVarint(byte[] column, int position, long value) {
+    while (value >= 0x80) {
+      column[position++] = (byte) (value | 0x80);
+      value >>>= 7;
+    }
+    column[position++] = (byte) value;
+    return position;
+  }
+
+  /**
+   * Writes the current block, if it holds any events.
+   */
+  private void flush() throws IOException {
+    if (blockEvents == 0) {
+      return;
+    }
+    int kindsLength = (blockEvents + 3) >>> 2;
+    int rawLength = 5 * Integer.BYTES + kindsLength + pagesLength + framesLength + victimsLength
+        + newPagesLength;
+    if (raw.capacity() < rawLength) {
+      raw = ByteBuffer.allocate(Math.max(rawLength, raw.capacity() * 2));
+    }
+    raw.clear();
+    raw.order(ByteOrder.LITTLE_ENDIAN).putInt(kindsLength).put(kinds, 0, kindsLength)
+        .putInt(pagesLength).put(pages, 0, pagesLength)
+        .putInt(framesLength).put(frames, 0, framesLength)
+        .putInt(victimsLength).put(victims, 0, victimsLength)
+        .putInt(newPagesLength).put(newPages, 0, newPagesLength);
+    byte[] body = raw.array();
+    int storedLength = rawLength;
+    if (deflater != null) {
+      deflater.reset();
+      deflater.setInput(body, 0, rawLength);
+      deflater.finish();
+      storedLength = 0;
+      while (!deflater.finished()) {
+        if (storedLength == stored.length) {
+          stored = Arrays.copyOf(stored, Math.max(1 << 12, stored.length * 2));
+        }
+        storedLength += deflater.deflate(stored, storedLength, stored.length - storedLength);
+      }
+      body = stored;
+    }
+    ByteBuffer header = ByteBuffer.allocate(EventLogHeader.BLOCK_HEADER_SIZE)
+        .order(ByteOrder.LITTLE_ENDIAN).putInt(blockEvents).putInt(rawLength).putInt(storedLength);
+    header.flip();
+    ByteBuffer[] buffers = {header, ByteBuffer.wrap(body, 0, storedLength)};
+    while (buffers[1].hasRemaining()) {
+      channel.write(buffers);
+    }
+    Arrays.fill(kinds, 0, kindsLength, (byte) 0);
+    blockEvents = 0;
+    pagesLength = 0;
+    framesLength = 0;
+    victimsLength = 0;
+    newPagesLength = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+      new EventLogHeader(compression, memoryCapacity, events, pageCount).write(channel);
+    } finally {
+      channel.close();
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+  }
+}
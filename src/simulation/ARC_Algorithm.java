@@ -0,0 +1,129 @@
+package simulation;
+
+
+/**
+ * The type Arc algorithm.
+ * Adaptive Replacement Cache (Megiddo and Modha, FAST '03). Resident pages
+ * seen once recently are in T1, pages seen at least twice in T2. Evicted
+ * pages are remembered in the ghost lists B1 and B2. A fault on a ghost
+ * shows which side was cut too short and moves the target size p of T1
+ * towards it, so a scan only ever churns T1 while the frequently used pages
+ * in T2 stay. Every reference costs O(1).
+ */
+public class ARC_Algorithm implements ReplacementPolicy {
+  private static final int T1 = 0;
+  private static final int T2 = 1;
+  private static final int B1 = 2;
+  private static final int B2 = 3;
+
+  private final PageLists lists = new PageLists(4);
+  private final int capacity;
+  private int target = 0;
+  private boolean faultInB2 = false;
+  private boolean dropVictim = false;
+
+  /**
+   * Instantiates a new Arc algorithm.
+   *
+   * @param context the simulation
+   */
+  public ARC_Algorithm(PolicyContext context) {
+    capacity = context.getMemoryCapacity();
+  }
+
+  /**
+   * moves the referenced page to the most recent end of T2
+   */
+  @Override
+  public void onHit(int page, int frame) {
+    lists.moveToLast(T2, page);
+  }
+
+  /**
+   * adapts the target size of T1 to a ghost hit, or trims the ghost lists
+   * to make room for a page never seen
+   */
+  @Override
+  public void onFault(int page) {
+    int list = lists.listOf(page);
+    int t1 = lists.size(T1);
+    int b1 = lists.size(B1);
+    int b2 = lists.size(B2);
+    faultInB2 = list == B2;
+    dropVictim = false;
+    if (list == B1) {
+      target = Math.min(capacity, target + Math.max(b2 / b1, 1));
+    } else if (list == B2) {
+      target = Math.max(0, target - Math.max(b1 / b2, 1));
+    } else if (t1 + b1 == capacity) {
+      if (t1 < capacity) {
+        lists.remove(lists.first(B1));
+      } else {
+        dropVictim = true;
+      }
+    } else if (t1 + b1 + lists.size(T2) + b2 == 2 * capacity) {
+      lists.remove(lists.first(B2));
+    }
+  }
+
+  /**
+   * pages seen twice go to T2, others to T1
+   */
+  @Override
+  public void onMiss(int id, int frame) {
+    int list = lists.listOf(id);
+    if (list == B1 || list == B2) {
+      lists.moveToLast(T2, id);
+    } else {
+      lists.addLast(T1, id);
+    }
+  }
+
+  /**
+   * the victim is the least recently used page of T1 if T1 exceeds its
+   * target, else of T2
+   */
+  @Override
+  public int selectVictim() {
+    int t1 = lists.size(T1);
+    if (t1 > 0 && (t1 > target || (faultInB2 && t1 == target) || lists.size(T2) == 0)) {
+      return lists.first(T1);
+    }
+    return lists.first(T2);
+  }
+
+  /**
+   * remembers the victim in the ghost list of its side
+   */
+  @Override
+  public void onEvict(int id, int frame) {
+    if (dropVictim) {
+      lists.remove(id);
+    } else {
+      lists.moveToLast(lists.listOf(id) == T1 ? B1 : B2, id);
+    }
+  }
+
+  /**
+   * Method to add algorithms unique text to default intro text.
+   * @return String of algorithms unique intro text.
+   */
+  @Override
+  public String intro() {
+    return "In the ARC page-replacement algorithm, pages referenced once and pages referenced"
+        + " again are kept in two LRU lists,\nwhose sizes adapt to the pages recently evicted"
+        + " from each. The victim frame is the least recently used page of the list over its"
+        + " target.\n";
+  }
+
+  /**
+   * Method to add algorithms unique text to default text when page miss occurs.
+   * @param victim the victim page id
+   * @return String of algorithms unique missed page text.
+   */
+  @Override
+  public String missText(int victim) {
+    return "which was the least recently used page of the list over its adaptive target size.";
+  }
+
+}
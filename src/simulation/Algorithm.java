@@ -0,0 +1,46 @@
+package simulation;
+
+import java.util.function.Function;
+
+/**
+ * The enum Algorithm.
+ * The page replacement algorithms built into the simulator.
+ */
+public enum Algorithm implements ReplacementPolicyProvider {
+  FIFO("FIFO", FIFO_Algorithm::new),
+  OPT("OPT", OPT_Algorithm::new),
+  LRU("LRU", LRU_Algorithm::new),
+  LFU("LFU", LFU_Algorithm::new),
+  LFU_DA("LFU-DA", context -> new LFU_Algorithm(context, LFU_Algorithm.Aging.DYNAMIC)),
+  LFU_DECAY("LFU-Decay", context -> new LFU_Algorithm(context, LFU_Algorithm.Aging.DECAY)),
+  CLOCK("CLOCK", CLOCK_Algorithm::new),
+  SECOND_CHANCE("Second-Chance", SecondChance_Algorithm::new),
+  ENHANCED_SECOND_CHANCE("Enhanced-Second-Chance", EnhancedSecondChance_Algorithm::new),
+  CLOCK_PRO("CLOCK-Pro", CLOCK_Pro_Algorithm::new),
+  ARC("ARC", ARC_Algorithm::new),
+  TWO_Q("2Q", TwoQ_Algorithm::new),
+  LIRS("LIRS", LIRS_Algorithm::new);
+
+  private final String displayName;
+  private final Function<PolicyContext, ReplacementPolicy> factory;
+
+  Algorithm(String displayName, Function<PolicyContext, ReplacementPolicy> factory) {
+    this.displayName = displayName;
+    this.factory = factory;
+  }
+
+  @Override
+  public String displayName() {
+    return displayName;
+  }
+
+  @Override
+  public boolean requiresLookahead() {
+    return this == OPT;
+  }
+
+  @Override
+  public ReplacementPolicy create(PolicyContext context) {
+    return factory.apply(context);
+  }
+}
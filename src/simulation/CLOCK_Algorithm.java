@@ -0,0 +1,74 @@
+package simulation;
+
+
+/**
+ * The type Clock algorithm.
+ * Frames form a circle with one reference bit each. A hit only sets the bit;
+ * on a fault the hand sweeps the circle, clearing set bits, and replaces the
+ * first frame whose bit is already clear. Hits cost O(1) and touch no list.
+ */
+public class CLOCK_Algorithm implements ReplacementPolicy {
+  private final int[] frames;
+  private final boolean[] referenced;
+  private int hand = 0;
+
+  /**
+   * Instantiates a new Clock algorithm.
+   *
+   * @param context the simulation
+   */
+  public CLOCK_Algorithm(PolicyContext context) {
+    int memoryCapacity = context.getMemoryCapacity();
+    frames = new int[memoryCapacity];
+    referenced = new boolean[memoryCapacity];
+  }
+
+  @Override
+  public void onHit(int page, int frame) {
+    referenced[frame] = true;
+  }
+
+  /**
+   * loads the page with its reference bit set and moves the hand past it
+   */
+  @Override
+  public void onMiss(int page, int frame) {
+    frames[frame] = page;
+    referenced[frame] = true;
+    hand = (frame + 1) % frames.length;
+  }
+
+  /**
+   * the victim is the first frame under the hand with a clear reference bit
+   */
+  @Override
+  public int selectVictim() {
+    while (referenced[hand]) {
+      referenced[hand] = false;
+      hand = (hand + 1) % frames.length;
+    }
+    return frames[hand];
+  }
+
+  /**
+   * Method to add algorithms unique text to default intro text.
+   * @return String of algorithms unique intro text.
+   */
+  @Override
+  public String intro() {
+    return "In the CLOCK page-replacement algorithm, a hand sweeps the frames in a circle,"
+        + " clearing reference bits.\nThe victim frame is the first one whose reference bit"
+        + " is already clear.\n";
+  }
+
+  /**
+   * Method to add algorithms unique text to default text when page miss occurs.
+   * @param victim the victim page id
+   * @return String of algorithms unique missed page text.
+   */
+  @Override
+  public String missText(int victim) {
+    return "which was the first page under the clock hand not referenced since the last sweep.";
+  }
+
+}
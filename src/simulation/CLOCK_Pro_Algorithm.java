@@ -0,0 +1,257 @@
+package simulation;
+
+
+import java.util.Arrays;
+
+/**
+ * The type Clock pro algorithm.
+ * CLOCK-Pro (Jiang, Chen and Zhang, USENIX ATC '05) approximates LIRS with
+ * clock hands. Pages are hot or cold; a cold page starts a test period when
+ * it is loaded and stays on the clock as a non-resident page after eviction
+ * until the test ends. A cold page referenced again during its test has a
+ * short reuse distance and becomes hot. The clock holds at most as many
+ * non-resident pages as there are frames.
+ * <ul>
+ * <li>HAND_cold finds the victim among the resident cold pages.</li>
+ * <li>HAND_hot turns a hot page not referenced since its last visit cold,
+ * ending the tests it passes.</li>
+ * <li>HAND_test ends tests to bound the non-resident pages.</li>
+ * </ul>
+ * The frames given to cold pages adapt: up when a page in its test is
+ * referenced again, down when a test ends without a reference. The clock is
+ * a circular list over page ids in primitive arrays, new pages are linked in
+ * just behind HAND_hot. Every hand step is O(1) and each page is passed at
+ * most a constant number of times per revolution.
+ */
+public class CLOCK_Pro_Algorithm implements ReplacementPolicy {
+  private static final int NIL = -1;
+  private static final byte HOT = 1;
+  private static final byte TEST = 2;
+  private static final byte REFERENCED = 4;
+  private static final byte RESIDENT = 8;
+  private static final byte LINKED = 16;
+
+  private final int capacity;
+  private byte[] state = new byte[16];
+  private int[] prev = new int[16];
+  private int[] next = new int[16];
+  private int handHot = NIL;
+  private int handCold = NIL;
+  private int handTest = NIL;
+  private int coldTarget;
+  private int hotCount = 0;
+  private int nonResidentCount = 0;
+
+  /**
+   * Instantiates a new Clock pro algorithm.
+   *
+   * @param context the simulation
+   */
+  public CLOCK_Pro_Algorithm(PolicyContext context) {
+    capacity = context.getMemoryCapacity();
+    coldTarget = Math.max(1, capacity / 2);
+  }
+
+  @Override
+  public void onHit(int page, int frame) {
+    state[page] |= REFERENCED;
+  }
+
+  /**
+   * a page still on the clock in its test becomes hot, any other page is
+   * loaded cold and starts its test
+   */
+  @Override
+  public void onMiss(int id, int frame) {
+    if (id >= state.length) {
+      int length = Math.max(id + 1, state.length * 2);
+      state = Arrays.copyOf(state, length);
+      prev = Arrays.copyOf(prev, length);
+      next = Arrays.copyOf(next, length);
+    }
+    if ((state[id] & LINKED) != 0) {
+      unlink(id);
+      nonResidentCount--;
+      coldTarget = Math.min(coldTarget + 1, maxColdTarget());
+      state[id] = HOT | RESIDENT;
+      hotCount++;
+    } else {
+      state[id] = TEST | RESIDENT;
+    }
+    link(id);
+    while (hotCount > capacity - coldTarget) {
+      runHandHot();
+    }
+  }
+
+  /**
+   * the victim is the first resident cold page under HAND_cold whose
+   * reference bit is clear
+   */
+  @Override
+  public int selectVictim() {
+    while (true) {
+      if (hotCount == capacity) {
+        runHandHot();
+      }
+      int id = handCold;
+      byte s = state[id];
+      if ((s & (HOT | RESIDENT)) != RESIDENT) {
+        handCold = next[id];
+      } else if ((s & REFERENCED) == 0) {
+        return id;
+      } else {
+        handCold = next[id];
+        unlink(id);
+        if ((s & TEST) != 0) {
+          coldTarget = Math.min(coldTarget + 1, maxColdTarget());
+          state[id] = HOT | RESIDENT;
+          hotCount++;
+        } else {
+          state[id] = TEST | RESIDENT;
+        }
+        link(id);
+        while (hotCount > capacity - coldTarget) {
+          runHandHot();
+        }
+      }
+    }
+  }
+
+  /**
+   * keeps the victim on the clock as a non-resident page while its test lasts
+   */
+  @Override
+  public void onEvict(int id, int frame) {
+    handCold = next[id];
+    if ((state[id] & TEST) == 0) {
+      unlink(id);
+      state[id] = 0;
+      return;
+    }
+    state[id] = TEST | LINKED;
+    nonResidentCount++;
+    while (nonResidentCount > capacity) {
+      runHandTest();
+    }
+  }
+
+  /**
+   * Moves HAND_hot until it turns one hot page cold, ending the tests of the
+   * cold pages it passes.
+   */
+  private void runHandHot() {
+    while (true) {
+      int id = handHot;
+      handHot = next[id];
+      byte s = state[id];
+      if ((s & HOT) != 0) {
+        if ((s & REFERENCED) != 0) {
+          state[id] = (byte) (s & ~REFERENCED);
+        } else {
+          state[id] = (byte) (s & ~HOT);
+          hotCount--;
+          return;
+        }
+      } else if ((s & TEST) != 0) {
+        endTest(id);
+      }
+    }
+  }
+
+  /**
+   * Moves HAND_test to the next cold page in its test and ends the test.
+   */
+  private void runHandTest() {
+    while (true) {
+      int id = handTest;
+      handTest = next[id];
+      if ((state[id] & (HOT | TEST)) == TEST) {
+        endTest(id);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Ends the test of a cold page without a reference, dropping it from the
+   * clock if it is no longer resident.
+   */
+  private void endTest(int id) {
+    coldTarget = Math.max(1, coldTarget - 1);
+    if ((state[id] & RESIDENT) != 0) {
+      state[id] &= ~TEST;
+    } else {
+      unlink(id);
+      state[id] = 0;
+      nonResidentCount--;
+    }
+  }
+
+  private int maxColdTarget() {
+    return Math.max(1, capacity - 1);
+  }
+
+  /**
+   * Links a page in just behind HAND_hot, the head of the clock.
+   */
+  private void link(int id) {
+    state[id] |= LINKED;
+    if (handHot == NIL) {
+      prev[id] = id;
+      next[id] = id;
+      handHot = id;
+      handCold = id;
+      handTest = id;
+      return;
+    }
+    int successor = handHot;
+    prev[id] = prev[successor];
+    next[id] = successor;
+    next[prev[successor]] = id;
+    prev[successor] = id;
+  }
+
+  /**
+   * Unlinks a page, moving any hand on it to the next page.
+   */
+  private void unlink(int id) {
+    int successor = next[id] == id ? NIL : next[id];
+    if (handHot == id) {
+      handHot = successor;
+    }
+    if (handCold == id) {
+      handCold = successor;
+    }
+    if (handTest == id) {
+      handTest = successor;
+    }
+    if (successor != NIL) {
+      next[prev[id]] = successor;
+      prev[successor] = prev[id];
+    }
+    state[id] &= ~LINKED;
+  }
+
+  /**
+   * Method to add algorithms unique text to default intro text.
+   * @return String of algorithms unique intro text.
+   */
+  @Override
+  public String intro() {
+    return "In the CLOCK-Pro page-replacement algorithm, pages reused soon after loading"
+        + " become hot and are protected,\nthe victim frame is the first cold page under the"
+        + " cold hand that was not referenced since the hand last passed.\n";
+  }
+
+  /**
+   * Method to add algorithms unique text to default text when page miss occurs.
+   * @param victim the victim page id
+   * @return String of algorithms unique missed page text.
+   */
+  @Override
+  public String missText(int victim) {
+    return "which was the first unreferenced cold page under the cold hand.";
+  }
+
+}
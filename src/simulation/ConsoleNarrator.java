@@ -0,0 +1,181 @@
+package simulation;
+
+import java.io.IOException;
+import allocationtable.AllocationTable;
+import simulation.Simulation.Page;
+
+/**
+ * The type Console narrator.
+ * Walks the user through a simulation step by step, printing the allocation
+ * table and an explanation of every reference, then waiting for Enter.
+ */
+public class ConsoleNarrator implements SimulationListener {
+  private final int window;
+  private AllocationTable allocationTable;
+
+  /**
+   * Instantiates a new Console narrator showing the default window of columns.
+   */
+  public ConsoleNarrator() {
+    this(AllocationTable.DEFAULT_WINDOW);
+  }
+
+  /**
+   * Instantiates a new Console narrator.
+   *
+   * @param window the number of allocation table columns shown at once
+   */
+  public ConsoleNarrator(int window) {
+    this.window = window;
+  }
+
+  /**
+   * Method displayed at simulation start introducing algorithm
+   * and displaying initial allocation table
+   */
+  @Override
+  public void simulationStarted(Simulation simulation) {
+    // the trace is null for streamed runs; the table then fills in references as they arrive
+    allocationTable =
+        new AllocationTable(simulation.getMemoryCapacity(), simulation.getReferenceTrace(),
+            window);
+    allocationTable.printAllocationTable();
+    System.out.println(introText(simulation));
+    promptToContinue();
+  }
+
+  @Override
+  public void pageHit(Simulation simulation, Page page) {
+    allocationTable.setReference((int) simulation.currentIdx + 1, page.getNumber());
+    showStep(simulation, pageHitText(simulation, page));
+  }
+
+  @Override
+  public void pageFault(Simulation simulation, Page page, Page victim) {
+    allocationTable.setReference((int) simulation.currentIdx + 1, page.getNumber());
+    allocationTable.addFault((int) simulation.currentIdx);
+    if (victim == null) {
+      showStep(simulation, pageMissTextNoVictim(simulation, page));
+    } else {
+      allocationTable.addVictimToTable((int) simulation.currentIdx, victim.getValue());
+      showStep(simulation, pageMissTextWithVictim(simulation, page, victim));
+    }
+  }
+
+  /**
+   * Prints the result of the simulation, page fault total
+   */
+  @Override
+  public void simulationFinished(Simulation simulation, SimulationResult result) {
+    allocationTable.printAllocationTable();
+    System.out.printf("End the end, a total of %d page faults were generated\n",
+        result.getPageFaults());
+    promptToContinue();
+  }
+
+  /**
+   * Helper method to display the current step.
+   * prints allocation table and
+   * displays results of current step.
+   */
+  private void showStep(Simulation simulation, String result) {
+    allocationTable.setColumn((int) simulation.currentIdx + 1,
+        simulation.getAllocatedPages());
+    allocationTable.printAllocationTable();
+    System.out.println(result);
+    promptToContinue();
+  }
+
+  /**
+   * Helper method to prompt user to continue
+   */
+  private void promptToContinue() {
+    try {
+      System.out.print("Press Enter to Continue.");
+      System.in.read();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Method to create intro text with specif algo text added.
+   * A streamed run has no reference string to show up front, so its intro
+   * leaves out the virtual memory size and the reference string.
+   * @param simulation
+   * @return intro text string
+   */
+  private String introText(Simulation simulation) {
+    int memoryCapacity = simulation.getMemoryCapacity();
+    ReferenceTrace referenceTrace = simulation.getReferenceTrace();
+    String intro = String.format("%sThis simulation assumes a hypothetical computer having %d "
+        + "physical frames numbered 0 to %d."
+        ,simulation.getPolicy().intro()
+        ,memoryCapacity,memoryCapacity-1);
+    if (referenceTrace == null) {
+      return intro + " The reference string is streamed as the simulation runs.";
+    }
+    return String.format("%s It assumes that a single process that is running has a "
+        + "virtual memory of %d frames.\nThe reference string is %s"
+        ,intro
+        , referenceTrace.stream().distinct().count()
+        , referenceTrace);
+  }
+
+  /**
+   * Method to create page hit text
+   * @param simulation
+   * @param pageToAllocate
+   * @return page hit text string
+   */
+  private String pageHitText(Simulation simulation, Page pageToAllocate) {
+    return String.format(
+        "Virtual frame %s is referenced.\nBecause virtual frame %s is already present in "
+            + "physical memory, in physical frame %d, nothing else needs to be done.\n"
+            + "No page fault is generated.\nWe have no victim frame"
+        ,pageToAllocate.getValue()
+        ,pageToAllocate.getValue()
+        ,simulation.getFrame(pageToAllocate));
+  }
+
+  /**
+   * Method to create page miss text with no victim
+   * @param simulation
+   * @param pageToAllocate
+   * @return page miss text string
+   */
+  private String pageMissTextNoVictim(Simulation simulation, Page pageToAllocate) {
+    return String.format(
+        "Virtual frame %s is referenced.\nBecause virtual frame %s is not present in physical"
+            + " memory, a page fault is generated.\nVirtual frame %s is loaded into physical "
+            + "frame %d.\nBecause there was room in physical memory, we have no victim frame."
+        ,pageToAllocate.getValue()
+        ,pageToAllocate.getValue()
+        ,pageToAllocate.getValue()
+        ,simulation.getFrame(pageToAllocate));
+  }
+
+  /**
+   * Method to create page miss text with no victim and add
+   * algorithm specific text
+   * @param simulation
+   * @param pageToAllocate
+   * @param victim
+   * @return page miss text with victim
+   */
+  private String pageMissTextWithVictim(Simulation simulation, Page pageToAllocate, Page victim) {
+    return String.format("Virtual frame %s is referenced.\nBecause virtual frame %s is not present "
+            + "in physical memory, a page fault is generated.\nBecause there is no more room in "
+            + "the physical memory, a frame must be replaced.\nThe victim frame is virtual frame "
+            + "%s, %s \nVirtual frame %s %s, and virtual frame %s is swapped in."
+        , pageToAllocate.getValue()
+        , pageToAllocate.getValue()
+        , victim.getValue()
+        , simulation.getPolicy().missText(victim.getId())
+        , victim.getValue()
+        , simulation.isVictimDirty() ? "was modified, so it is written back to swap"
+            : "is swapped out"
+        , pageToAllocate.getValue());
+  }
+
+}
@@ -0,0 +1,159 @@
+package simulation;
+
+import java.util.Locale;
+
+/**
+ * The type Dynamic allocation result.
+ * Immutable summary of a run with dynamically sized resident sets, in total
+ * and per process id, with the thrashing detected.
+ */
+public class DynamicAllocationResult {
+  private final SimulationResult total;
+  private final int[] pages;
+  private final long[] references;
+  private final long[] pageFaults;
+  private final long[] residentSum;
+  private final int[] peakResident;
+  private final long peakDemand;
+  private final long overcommittedReferences;
+  private final long thrashingEpisodes;
+
+  /**
+   * Instantiates a new Dynamic allocation result.
+   *
+   * @param total the result over all processes
+   * @param pages the number of distinct pages of every process
+   * @param references the number of references of every process
+   * @param pageFaults the page faults of every process
+   * @param residentSum the resident set size of every process summed over its references
+   * @param peakResident the largest resident set of every process
+   * @param peakDemand the largest number of resident pages of all processes together
+   * @param overcommittedReferences the references after which more pages were
+   *     resident than there are frames
+   * @param thrashingEpisodes the number of times memory became overcommitted
+   */
+  DynamicAllocationResult(SimulationResult total, int[] pages, long[] references,
+      long[] pageFaults, long[] residentSum, int[] peakResident, long peakDemand,
+      long overcommittedReferences, long thrashingEpisodes) {
+    this.total = total;
+    this.pages = pages;
+    this.references = references;
+    this.pageFaults = pageFaults;
+    this.residentSum = residentSum;
+    this.peakResident = peakResident;
+    this.peakDemand = peakDemand;
+    this.overcommittedReferences = overcommittedReferences;
+    this.thrashingEpisodes = thrashingEpisodes;
+  }
+
+  /**
+   * Gets total.
+   *
+   * @return the result over all processes, without victims
+   */
+  public SimulationResult getTotal() {return total;}
+
+  /**
+   * Gets process count.
+   *
+   * @return the number of process ids
+   */
+  public int getProcessCount() {return pages.length;}
+
+  /**
+   * Gets pages.
+   *
+   * @param pid the process id
+   * @return the number of distinct pages the process referenced
+   */
+  public int getPages(int pid) {return pages[pid];}
+
+  /**
+   * Gets references.
+   *
+   * @param pid the process id
+   * @return the number of references of the process
+   */
+  public long getReferences(int pid) {return references[pid];}
+
+  /**
+   * Gets page faults.
+   *
+   * @param pid the process id
+   * @return the page faults of the process
+   */
+  public long getPageFaults(int pid) {return pageFaults[pid];}
+
+  /**
+   * Gets mean resident.
+   *
+   * @param pid the process id
+   * @return the mean resident set size of the process over its references
+   */
+  public double getMeanResident(int pid) {
+    return references[pid] == 0 ? 0 : (double) residentSum[pid] / references[pid];
+  }
+
+  /**
+   * Gets peak resident.
+   *
+   * @param pid the process id
+   * @return the largest resident set of the process
+   */
+  public int getPeakResident(int pid) {return peakResident[pid];}
+
+  /**
+   * Gets peak demand.
+   *
+   * @return the largest number of resident pages of all processes together
+   */
+  public long getPeakDemand() {return peakDemand;}
+
+  /**
+   * Gets overcommitted references.
+   *
+   * @return the references after which more pages were resident than there are frames
+   */
+  public long getOvercommittedReferences() {return overcommittedReferences;}
+
+  /**
+   * Gets thrashing episodes.
+   *
+   * @return the number of times memory became overcommitted
+   */
+  public long getThrashingEpisodes() {return thrashingEpisodes;}
+
+  /**
+   * Is thrashing.
+   *
+   * @return true if the resident sets ever demanded more than the frames
+   */
+  public boolean isThrashing() {return overcommittedReferences > 0;}
+
+  /**
+   * Formats the processes as CSV with a header row.
+   *
+   * @return the CSV text
+   */
+  public String toCsv() {
+    StringBuilder csv = new StringBuilder("pid,pages,references,faults,meanResident,peakResident\n");
+    for (int pid = 0; pid < pages.length; pid++) {
+      csv.append(String.format(Locale.ROOT, "%d,%d,%d,%d,%.2f,%d\n", pid, pages[pid],
+          references[pid], pageFaults[pid], getMeanResident(pid), peakResident[pid]));
+    }
+    return csv.toString();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder(String.format("%s peakDemand=%d thrashing=%b"
+        + " overcommitted=%d episodes=%d", total, peakDemand, isThrashing(),
+        overcommittedReferences, thrashingEpisodes));
+    for (int pid = 0; pid < pages.length; pid++) {
+      text.append(String.format("\n  pid=%d pages=%d references=%d faults=%d"
+          + " meanResident=%.1f peakResident=%d", pid, pages[pid], references[pid],
+          pageFaults[pid], getMeanResident(pid), peakResident[pid]));
+    }
+    return text.toString();
+  }
+}
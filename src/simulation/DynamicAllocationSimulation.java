@@ -0,0 +1,91 @@
+package simulation;
+
+import java.util.function.Supplier;
+
+/**
+ * The type Dynamic allocation simulation.
+ * Simulates several processes whose resident sets grow and shrink while they
+ * run, each sized by its own {@link ResidentSetController}, instead of
+ * holding a fixed number of frames. The frames of the machine are not
+ * enforced: whenever the resident sets together demand more than there are,
+ * the system is thrashing, which is counted in the result. Every process
+ * interns its page numbers into dense ids, so the controllers keep their
+ * state in primitive arrays.
+ */
+public class DynamicAllocationSimulation {
+  private final Supplier<ResidentSetController> controllers;
+  private final int memoryCapacity;
+
+  /**
+   * Instantiates a new Dynamic allocation simulation.
+   *
+   * @param controllers a supplier of a new controller for every process
+   * @param memoryCapacity the number of physical frames shared by all processes
+   */
+  public DynamicAllocationSimulation(Supplier<ResidentSetController> controllers,
+      int memoryCapacity) {
+    if (memoryCapacity <= 0) {
+      throw new IllegalArgumentException("Memory capacity must be positive");
+    }
+    this.controllers = controllers;
+    this.memoryCapacity = memoryCapacity;
+  }
+
+  /**
+   * Runs the simulation.
+   *
+   * @param trace the interleaved references of all processes
+   * @return the result, in total and per process
+   */
+  public DynamicAllocationResult run(MultiProcessTrace trace) {
+    int processes = trace.getProcessCount();
+    ResidentSetController[] controller = new ResidentSetController[processes];
+    int[] pages = new int[processes];
+    long[] references = new long[processes];
+    long[] pageFaults = new long[processes];
+    long[] residentSum = new long[processes];
+    int[] peakResident = new int[processes];
+    LongIntMap ids = new LongIntMap();
+    long faults = 0;
+    long demand = 0;
+    long peakDemand = 0;
+    long overcommitted = 0;
+    long episodes = 0;
+    ReferenceTrace keys = trace.getKeys();
+    for (int i = 0; i < keys.size(); i++) {
+      long key = keys.get(i);
+      int pid = MultiProcessTrace.pidOf(key);
+      if (controller[pid] == null) {
+        controller[pid] = controllers.get();
+      }
+      int id = ids.get(key);
+      if (id == LongIntMap.MISSING) {
+        id = pages[pid]++;
+        ids.put(key, id);
+      }
+      int before = controller[pid].getResidentSize();
+      if (controller[pid].reference(id)) {
+        pageFaults[pid]++;
+        faults++;
+      }
+      int resident = controller[pid].getResidentSize();
+      references[pid]++;
+      residentSum[pid] += resident;
+      peakResident[pid] = Math.max(peakResident[pid], resident);
+      boolean wasOvercommitted = demand > memoryCapacity;
+      demand += resident - before;
+      peakDemand = Math.max(peakDemand, demand);
+      if (demand > memoryCapacity) {
+        overcommitted++;
+        if (!wasOvercommitted) {
+          episodes++;
+        }
+      }
+    }
+    // every fault but the first on a page reads back a page the controller dropped
+    SimulationResult total = new SimulationResult(memoryCapacity, keys.size(), faults,
+        new long[0], 0, faults - ids.size(), 0, 0, 0, 0);
+    return new DynamicAllocationResult(total, pages, references, pageFaults, residentSum,
+        peakResident, peakDemand, overcommitted, episodes);
+  }
+}
@@ -0,0 +1,93 @@
+package simulation;
+
+
+/**
+ * The type Enhanced second chance algorithm.
+ * CLOCK over the pair of reference and dirty bit, preferring to evict clean
+ * pages so that fewer replacements cost a write-back. The hand first looks
+ * for a page neither referenced nor dirty without changing any bit; failing
+ * that, it looks for an unreferenced dirty page, clearing reference bits as
+ * it passes, and repeats. Dirty bits are kept by the simulation, see
+ * {@link PolicyContext#isDirty(int)}.
+ */
+public class EnhancedSecondChance_Algorithm implements ReplacementPolicy {
+  private final PolicyContext context;
+  private final int[] frames;
+  private final boolean[] referenced;
+  private int hand = 0;
+
+  /**
+   * Instantiates a new Enhanced second chance algorithm.
+   *
+   * @param context the simulation
+   */
+  public EnhancedSecondChance_Algorithm(PolicyContext context) {
+    this.context = context;
+    int memoryCapacity = context.getMemoryCapacity();
+    frames = new int[memoryCapacity];
+    referenced = new boolean[memoryCapacity];
+  }
+
+  @Override
+  public void onHit(int page, int frame) {
+    referenced[frame] = true;
+  }
+
+  /**
+   * loads the page with its reference bit set and moves the hand past it
+   */
+  @Override
+  public void onMiss(int page, int frame) {
+    frames[frame] = page;
+    referenced[frame] = true;
+    hand = (frame + 1) % frames.length;
+  }
+
+  /**
+   * the victim is the first frame under the hand in the lowest class of
+   * (referenced, dirty): clean and unreferenced, then dirty and unreferenced
+   */
+  @Override
+  public int selectVictim() {
+    while (true) {
+      for (int i = 0; i < frames.length; i++) {
+        int frame = (hand + i) % frames.length;
+        if (!referenced[frame] && !context.isDirty(frames[frame])) {
+          hand = frame;
+          return frames[frame];
+        }
+      }
+      for (int i = 0; i < frames.length; i++) {
+        if (!referenced[hand]) {
+          return frames[hand];
+        }
+        referenced[hand] = false;
+        hand = (hand + 1) % frames.length;
+      }
+    }
+  }
+
+  /**
+   * Method to add algorithms unique text to default intro text.
+   * @return String of algorithms unique intro text.
+   */
+  @Override
+  public String intro() {
+    return "In the Enhanced Second-Chance page-replacement algorithm, a clock hand sweeps the"
+        + " frames looking first for a page\nthat is neither referenced nor modified, then for"
+        + " one that is modified but not referenced,\nclearing reference bits on the way, so"
+        + " clean pages are evicted before pages that must be written back.\n";
+  }
+
+  /**
+   * Method to add algorithms unique text to default text when page miss occurs.
+   * @param victim the victim page id
+   * @return String of algorithms unique missed page text.
+   */
+  @Override
+  public String missText(int victim) {
+    return "which was the first page under the clock hand in the lowest class of"
+        + " not referenced, then not modified.";
+  }
+
+}
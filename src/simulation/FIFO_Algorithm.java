@@ -1,29 +1,44 @@
 package simulation;
 
 
-import java.util.List;
-
 /**
  * The type Fifo algorithm.
+ * Frames are queued in the order their pages were loaded, in a ring buffer.
  */
-public class FIFO_Algorithm extends Simulation {
+public class FIFO_Algorithm implements ReplacementPolicy {
+  private final int[] queue;
+  private final int[] frames;
+  private int head = 0;
+  private int size = 0;
 
   /**
    * Instantiates a new Fifo algorithm.
    *
-   * @param memoryCapacity the memory capacity
-   * @param referenceString the reference string
+   * @param context the simulation
    */
-  public FIFO_Algorithm(int memoryCapacity, List<String> referenceString) {
-    super(memoryCapacity, referenceString);
+  public FIFO_Algorithm(PolicyContext context) {
+    queue = new int[context.getMemoryCapacity()];
+    frames = new int[context.getMemoryCapacity()];
+  }
+
+  @Override
+  public void onMiss(int page, int frame) {
+    frames[frame] = page;
+    queue[(head + size++) % queue.length] = frame;
   }
 
   /**
-   * sets the method to determine victims to replace
+   * the victim is the page that was loaded first
    */
-  protected void setVictimPriorities() {
-    getAllocatedPages()
-        .forEach(page -> page.setReplacementPriority(page.getReplacementPriority() - 1));
+  @Override
+  public int selectVictim() {
+    return frames[queue[head]];
+  }
+
+  @Override
+  public void onEvict(int victim, int frame) {
+    head = (head + 1) % queue.length;
+    size--;
   }
 
   /**
@@ -31,17 +46,18 @@ public class FIFO_Algorithm extends Simulation {
    * @return String of algorithms unique intro text.
    */
   @Override
-  protected String algoSpecificIntro() {
+  public String intro() {
     return "In the FIFO page-replacement algorithm, the victim frame the oldest frame\n";
   }
 
 
   /**
    * Method to add algorithms unique text to default text when page miss occurs.
-   * @param victim the victim page
+   * @param victim the victim page id
    * @return String of algorithms unique missed page text.
    */
-  protected String algoMissText(Page victim) {
+  @Override
+  public String missText(int victim) {
     return "according to the FIFO strategy used in this algorithm. ";
   }
 
@@ -0,0 +1,142 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * The type Frame heap.
+ * Indexed binary min-heap over physical frame numbers. Each frame in the heap
+ * carries a long key; the top is the frame with the smallest key, ties going
+ * to the lowest frame number to keep the top-down order used throughout the
+ * simulator. Insert, update and remove are O(log frames) and allocation free.
+ */
+class FrameHeap {
+  private final int[] heap;
+  private final int[] position;
+  private final long[] keys;
+  private int size = 0;
+
+  /**
+   * Instantiates a new Frame heap.
+   *
+   * @param memoryCapacity the number of frames
+   */
+  FrameHeap(int memoryCapacity) {
+    heap = new int[memoryCapacity];
+    position = new int[memoryCapacity];
+    keys = new long[memoryCapacity];
+    Arrays.fill(position, -1);
+  }
+
+  /**
+   * Inserts the frame or updates its key if already present.
+   *
+   * @param frame the frame
+   * @param key the key
+   */
+  void set(int frame, long key) {
+    int i = position[frame];
+    if (i < 0) {
+      i = size++;
+      heap[i] = frame;
+      position[frame] = i;
+      keys[frame] = key;
+      siftUp(i);
+    } else {
+      long old = keys[frame];
+      keys[frame] = key;
+      if (key < old) {
+        siftUp(i);
+      } else {
+        siftDown(i);
+      }
+    }
+  }
+
+  /**
+   * Removes the frame if present.
+   *
+   * @param frame the frame
+   */
+  void remove(int frame) {
+    int i = position[frame];
+    if (i < 0) {
+      return;
+    }
+    position[frame] = -1;
+    int last = heap[--size];
+    if (i != size) {
+      heap[i] = last;
+      position[last] = i;
+      siftDown(i);
+      siftUp(position[last]);
+    }
+  }
+
+  /**
+   * Gets the frame with the smallest key.
+   *
+   * @return the frame, -1 if empty
+   */
+  int peek() {
+    return size == 0 ? -1 : heap[0];
+  }
+
+  /**
+   * Gets the key of a frame.
+   *
+   * @param frame the frame
+   * @return the key
+   */
+  long key(int frame) {
+    return keys[frame];
+  }
+
+  /**
+   * Checks if empty.
+   *
+   * @return true if no frame is in the heap
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  private boolean less(int a, int b) {
+    return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+  }
+
+  private void siftUp(int i) {
+    int frame = heap[i];
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (!less(frame, heap[parent])) {
+        break;
+      }
+      heap[i] = heap[parent];
+      position[heap[i]] = i;
+      i = parent;
+    }
+    heap[i] = frame;
+    position[frame] = i;
+  }
+
+  private void siftDown(int i) {
+    int frame = heap[i];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && less(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!less(heap[child], frame)) {
+        break;
+      }
+      heap[i] = heap[child];
+      position[heap[i]] = i;
+      i = child;
+    }
+    heap[i] = frame;
+    position[frame] = i;
+  }
+}
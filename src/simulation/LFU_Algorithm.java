@@ -1,34 +1,147 @@
 package simulation;
 
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * The type Lfu algorithm.
+ * Reference counts are kept per page and updated on every reference, and
+ * allocated frames sit in a heap keyed by count, so each reference costs
+ * O(log frames) instead of recounting the reference string on every fault.
  */
-public class LFU_Algorithm extends Simulation {
+public class LFU_Algorithm implements ReplacementPolicy {
+
+  /**
+   * References between two halvings of every count, per physical frame,
+   * when running with {@link Aging#DECAY}.
+   */
+  static final int DECAY_PERIOD_PER_FRAME = 16;
+
+  /**
+   * The enum Aging.
+   * How old references lose weight against recent ones.
+   */
+  public enum Aging {
+    /**
+     * Plain LFU, counts every reference since the start of the run.
+     */
+    NONE,
+    /**
+     * LFU with dynamic aging (LFU-DA). Counts restart when a page is loaded
+     * and are offset by the key of the last victim, so pages that were
+     * popular long ago eventually become victims.
+     */
+    DYNAMIC,
+    /**
+     * Every count is halved at a fixed reference interval.
+     */
+    DECAY
+  }
+
+  private final PolicyContext context;
+  private final Aging aging;
+  private int[] counts = new int[16];
+  private int[] countEpochs = new int[16];
+  private final int[] frames;
+  private final FrameHeap heap;
+  private final int decayPeriod;
+  private int epoch = 0;
+  private long inflation = 0;
+  private int victimCount = 0;
 
   /**
    * Instantiates a new Lfu algorithm.
    *
-   * @param memoryCapacity the memory capacity
-   * @param referenceString the reference string
+   * @param context the simulation
+   */
+  public LFU_Algorithm(PolicyContext context) {
+    this(context, Aging.NONE);
+  }
+
+  /**
+   * Instantiates a new Lfu algorithm with aging.
+   *
+   * @param context the simulation
+   * @param aging the aging variant
    */
-  public LFU_Algorithm(int memoryCapacity, List<String> referenceString) {
-    super(memoryCapacity, referenceString);
+  public LFU_Algorithm(PolicyContext context, Aging aging) {
+    this.context = context;
+    this.aging = aging;
+    frames = new int[context.getMemoryCapacity()];
+    Arrays.fill(frames, PageLists.NONE);
+    heap = new FrameHeap(context.getMemoryCapacity());
+    decayPeriod = context.getMemoryCapacity() * DECAY_PERIOD_PER_FRAME;
+  }
+
+  @Override
+  public void onHit(int page, int frame) {
+    decay();
+    int id = count(page);
+    counts[id]++;
+    heap.set(frame, key(id));
+  }
+
+  @Override
+  public void onMiss(int page, int frame) {
+    decay();
+    if (page >= counts.length) {
+      int length = Math.max(page + 1, counts.length * 2);
+      counts = Arrays.copyOf(counts, length);
+      countEpochs = Arrays.copyOf(countEpochs, length);
+    }
+    int id = count(page);
+    counts[id] = (aging == Aging.DYNAMIC) ? 1 : counts[id] + 1;
+    frames[frame] = page;
+    heap.set(frame, key(id));
   }
 
   /**
-   * sets the method to determine victims to replace
+   * the victim is the least frequently used page, ties going to the topmost frame
    */
   @Override
-  protected void setVictimPriorities(){
-    for (Page page : getReferenceList()) {
-      page.setReplacementPriority((int) getReferenceList()
-          .subList(0, currentIdx)//+1
-          .stream()
-          .filter(pages -> pages.equals(page))
-          .count());
+  public int selectVictim() {
+    return frames[heap.peek()];
+  }
+
+  @Override
+  public void onEvict(int victim, int frame) {
+    victimCount = counts[count(victim)];
+    if (aging == Aging.DYNAMIC) {
+      inflation = heap.key(frame);
+    }
+    heap.remove(frame);
+    frames[frame] = PageLists.NONE;
+  }
+
+  /**
+   * Brings the decayed count of a page up to date.
+   * @param id the page id
+   * @return the page id, index into the count arrays
+   */
+  private int count(int id) {
+    if (countEpochs[id] != epoch) {
+      counts[id] >>= Math.min(31, epoch - countEpochs[id]);
+      countEpochs[id] = epoch;
+    }
+    return id;
+  }
+
+  private long key(int id) {
+    return (aging == Aging.DYNAMIC) ? counts[id] + inflation : counts[id];
+  }
+
+  /**
+   * Starts a new decay epoch when the period has passed, halving the keys
+   * of the allocated frames. Counts of other pages catch up lazily.
+   */
+  private void decay() {
+    if (aging != Aging.DECAY || context.getCurrentIdx() / decayPeriod == epoch) {
+      return;
+    }
+    epoch = (int) (context.getCurrentIdx() / decayPeriod);
+    for (int frame = 0; frame < frames.length; frame++) {
+      if (frames[frame] != PageLists.NONE) {
+        heap.set(frame, key(count(frames[frame])));
+      }
     }
   }
 
@@ -37,24 +150,24 @@ public class LFU_Algorithm extends Simulation {
    * @return String of algorithms unique intro text.
    */
   @Override
-  protected String algoSpecificIntro() {
+  public String intro() {
     return "In the LFU page-replacement algorithm, the victim frame is the one"
         + " that has the smallest number of references.\n";
   }
 
   /**
    * Method to add algorithms unique text to default text when page miss occurs.
-   * @param victim the victim page
+   * @param victim the victim page id
    * @return String of algorithms unique missed page text.
    */
   @Override
-  protected String algoMissText(Page victim) {
+  public String missText(int victim) {
     return String.format(
         "which was used %dx. We applied the policy to choose the first least frequently used\n"
-        + "frame in top-down order. Therefore, frame %s was least frequently used and will be "
+        + "frame in top-down order. Therefore, frame %d was least frequently used and will be "
         + "replaced."
-        ,getReferenceList().subList(0, currentIdx).stream().filter(page -> page.equals(victim)).count()
-        ,victim.getValue());
+        ,victimCount
+        ,context.getPageNumber(victim));
   }
 
 }
@@ -0,0 +1,160 @@
+package simulation;
+
+
+import java.util.Arrays;
+
+/**
+ * The type Lirs algorithm.
+ * Low Inter-reference Recency Set (Jiang and Zhang, SIGMETRICS '02). Pages
+ * with a short distance between their last two references are LIR and stay
+ * resident; the others are HIR and only get the few frames left over, 1% of
+ * memory but at least one. The recency stack S orders pages by last
+ * reference, including HIR pages no longer resident, and is pruned so its
+ * bottom is always LIR. A HIR page referenced again while still in S has
+ * been reused sooner than the oldest LIR page and swaps status with it. The
+ * queue Q holds the resident HIR pages, its front is the victim. S remembers
+ * at most as many non-resident pages as there are frames. Every reference
+ * costs O(1) amortized.
+ */
+public class LIRS_Algorithm implements ReplacementPolicy {
+  private static final int STACK = 0;
+  private static final int QUEUE = 0;
+  private static final int GHOSTS = 0;
+
+  private final PageLists stack = new PageLists(1);
+  private final PageLists queue = new PageLists(1);
+  private final PageLists ghosts = new PageLists(1);
+  private final int capacity;
+  private final int lirLimit;
+  private boolean[] lir = new boolean[16];
+  private int lirCount = 0;
+
+  /**
+   * Instantiates a new Lirs algorithm.
+   *
+   * @param context the simulation
+   */
+  public LIRS_Algorithm(PolicyContext context) {
+    capacity = context.getMemoryCapacity();
+    lirLimit = capacity - Math.max(1, capacity / 100);
+  }
+
+  /**
+   * moves the page to the top of S; a HIR page still in S becomes LIR
+   */
+  @Override
+  public void onHit(int id, int frame) {
+    if (lir[id]) {
+      stack.moveToLast(STACK, id);
+      prune();
+    } else if (stack.listOf(id) != PageLists.NONE) {
+      queue.remove(id);
+      stack.moveToLast(STACK, id);
+      promote(id);
+    } else {
+      stack.addLast(STACK, id);
+      queue.moveToLast(QUEUE, id);
+    }
+  }
+
+  /**
+   * loads a page as LIR if it is still in S or while there is room, else as
+   * resident HIR
+   */
+  @Override
+  public void onMiss(int id, int frame) {
+    if (id >= lir.length) {
+      lir = Arrays.copyOf(lir, Math.max(id + 1, lir.length * 2));
+    }
+    if (stack.listOf(id) != PageLists.NONE) {
+      ghosts.remove(id);
+      stack.moveToLast(STACK, id);
+      promote(id);
+    } else if (lirCount < lirLimit) {
+      lir[id] = true;
+      lirCount++;
+      stack.addLast(STACK, id);
+    } else {
+      stack.addLast(STACK, id);
+      queue.addLast(QUEUE, id);
+    }
+  }
+
+  /**
+   * the victim is the resident HIR page at the front of Q
+   */
+  @Override
+  public int selectVictim() {
+    return queue.first(QUEUE);
+  }
+
+  /**
+   * keeps the victim in S as a non-resident page, forgetting the oldest one
+   * when S remembers too many
+   */
+  @Override
+  public void onEvict(int id, int frame) {
+    queue.remove(id);
+    if (stack.listOf(id) == PageLists.NONE) {
+      return;
+    }
+    ghosts.addLast(GHOSTS, id);
+    if (ghosts.size(GHOSTS) > capacity) {
+      int oldest = ghosts.first(GHOSTS);
+      ghosts.remove(oldest);
+      stack.remove(oldest);
+    }
+  }
+
+  /**
+   * Makes a page at the top of S LIR and turns the bottom LIR page HIR.
+   */
+  private void promote(int id) {
+    lir[id] = true;
+    lirCount++;
+    while (lirCount > lirLimit) {
+      prune();
+      int bottom = stack.first(STACK);
+      lir[bottom] = false;
+      lirCount--;
+      stack.remove(bottom);
+      queue.addLast(QUEUE, bottom);
+    }
+    prune();
+  }
+
+  /**
+   * Removes HIR pages from the bottom of S until a LIR page is at the bottom.
+   */
+  private void prune() {
+    for (int id = stack.first(STACK); id != PageLists.NONE && !lir[id];
+        id = stack.first(STACK)) {
+      stack.remove(id);
+      if (ghosts.listOf(id) != PageLists.NONE) {
+        ghosts.remove(id);
+      }
+    }
+  }
+
+  /**
+   * Method to add algorithms unique text to default intro text.
+   * @return String of algorithms unique intro text.
+   */
+  @Override
+  public String intro() {
+    return "In the LIRS page-replacement algorithm, pages reused after few other pages are"
+        + " protected, the rest share a small queue.\nThe victim frame is the oldest page in"
+        + " that queue.\n";
+  }
+
+  /**
+   * Method to add algorithms unique text to default text when page miss occurs.
+   * @param victim the victim page id
+   * @return String of algorithms unique missed page text.
+   */
+  @Override
+  public String missText(int victim) {
+    return "which was the oldest page not reused soon enough to be protected.";
+  }
+
+}
@@ -1,32 +1,50 @@
 package simulation;
 
 
-import java.util.List;
-
 /**
  * The type Lru algorithm.
+ * Allocated pages are kept in an intrusive recency list over page ids,
+ * least recently used first. Every hit, load and eviction is O(1).
  */
-public class LRU_Algorithm extends Simulation {
+public class LRU_Algorithm implements ReplacementPolicy {
+  private static final int RECENCY = 0;
+
+  private final PageLists lists = new PageLists(1);
 
   /**
    * Instantiates a new Lru algorithm.
    *
-   * @param memoryCapacity the memory capacity
-   * @param referenceString the reference string
+   * @param context the simulation
+   */
+  public LRU_Algorithm(PolicyContext context) {}
+
+  /**
+   * moves the referenced page to the most recently used end
    */
-  public LRU_Algorithm(int memoryCapacity, List<String> referenceString) {
-    super(memoryCapacity, referenceString);
+  @Override
+  public void onHit(int page, int frame) {
+    lists.moveToLast(RECENCY, page);
   }
 
   /**
-   * sets the method to determine victims to replace
+   * appends the loaded page at the most recently used end
    */
-  protected void setVictimPriorities(){
-    for (Page page : getReferenceList()) {
-      page.setReplacementPriority(getReferenceList()
-          .subList(0, currentIdx)
-          .lastIndexOf(page));
-    }
+  @Override
+  public void onMiss(int page, int frame) {
+    lists.addLast(RECENCY, page);
+  }
+
+  /**
+   * the victim is the page at the least recently used end
+   */
+  @Override
+  public int selectVictim() {
+    return lists.first(RECENCY);
+  }
+
+  @Override
+  public void onEvict(int victim, int frame) {
+    lists.remove(victim);
   }
 
   /**
@@ -34,7 +52,7 @@ public class LRU_Algorithm extends Simulation {
    * @return String of algorithms unique intro text.
    */
   @Override
-  protected String algoSpecificIntro() {
+  public String intro() {
     return "The LRU page-replacement algorithm is an approximation of the optimal page-replacement"
         + " algorithm.\nthe victim frame is the one that has not been accessed for the"
         + " longest period of time.\n";
@@ -42,11 +60,11 @@ public class LRU_Algorithm extends Simulation {
 
   /**
    * Method to add algorithms unique text to default text when page miss occurs.
-   * @param victim the victim page
+   * @param victim the victim page id
    * @return String of algorithms unique missed page text.
    */
   @Override
-  protected String algoMissText(Page victim) {
+  public String missText(int victim) {
     return "which was not referenced for the longest period of time.";
   }
 
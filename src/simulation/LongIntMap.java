@@ -0,0 +1,88 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * The type Long int map.
+ * Open addressing hash map from non-negative long keys to int values, with
+ * no boxing. Used to intern page numbers too large for a direct array.
+ */
+class LongIntMap {
+  /**
+   * Returned by {@link #get(long)} for absent keys.
+   */
+  static final int MISSING = -1;
+
+  private long[] keys = new long[16];
+  private int[] values = new int[16];
+  private int size = 0;
+
+  LongIntMap() {
+    Arrays.fill(keys, -1);
+  }
+
+  /**
+   * Gets the value of a key.
+   *
+   * @param key the key, not negative
+   * @return the value or {@link #MISSING}
+   */
+  int get(long key) {
+    int slot = slot(keys, key);
+    return keys[slot] == key ? values[slot] : MISSING;
+  }
+
+  /**
+   * Maps a key to a value, replacing any previous value.
+   *
+   * @param key the key, not negative
+   * @param value the value
+   */
+  void put(long key, int value) {
+    int slot = slot(keys, key);
+    values[slot] = value;
+    if (keys[slot] != key) {
+      keys[slot] = key;
+      if (++size * 2 > keys.length) {
+        rehash();
+      }
+    }
+  }
+
+  /**
+   * Gets the number of keys.
+   *
+   * @return the size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Linear probe for a key; -1 marks an empty slot.
+   */
+  private static int slot(long[] keys, long key) {
+    int mask = keys.length - 1;
+    long hash = key * 0x9E3779B97F4A7C15L;
+    int slot = (int) (hash ^ (hash >>> 32)) & mask;
+    while (keys[slot] != -1 && keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void rehash() {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    keys = new long[oldKeys.length * 2];
+    values = new int[oldKeys.length * 2];
+    Arrays.fill(keys, -1);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != -1) {
+        int slot = slot(keys, oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package simulation;
+
+/**
+ * The interface Lookahead.
+ * Supplies, reference by reference, the index at which the referenced page
+ * is used next. Needed by algorithms that see the future, such as OPT.
+ */
+public interface Lookahead {
+
+  /**
+   * Next use of a page that is never referenced again.
+   */
+  long NEVER = Long.MAX_VALUE;
+
+  /**
+   * Gets the next use of the next reference. Called exactly once per reference.
+   *
+   * @return the index of the next reference to the same page, or NEVER
+   */
+  long next();
+
+  /**
+   * Builds the lookahead of an in-memory trace in one backward pass.
+   *
+   * @param referenceTrace the reference trace
+   * @return the lookahead, positioned at the first reference
+   */
+  static Lookahead of(ReferenceTrace referenceTrace) {
+    return NextUseIndex.of(referenceTrace).lookahead();
+  }
+}
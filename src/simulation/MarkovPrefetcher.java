@@ -0,0 +1,65 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * The type Markov prefetcher.
+ * A first-order next-page predictor. Every page remembers the page
+ * referenced right after it last time; after a reference the chain of
+ * remembered successors is followed for up to {@code degree} pages and read
+ * ahead. The table holds one entry per distinct page, in primitive arrays.
+ */
+public class MarkovPrefetcher implements Prefetcher {
+  private static final long NONE = -1;
+
+  private final int degree;
+  private final LongIntMap index = new LongIntMap();
+  private long[] successors = new long[16];
+  private int lastEntry = -1;
+
+  /**
+   * Instantiates a new Markov prefetcher.
+   *
+   * @param degree the length of the chain of successors read ahead
+   */
+  public MarkovPrefetcher(int degree) {
+    if (degree <= 0) {
+      throw new IllegalArgumentException("Prefetch degree must be positive");
+    }
+    this.degree = degree;
+  }
+
+  @Override
+  public int getDegree() {return degree;}
+
+  @Override
+  public int predict(long page, boolean fault, long[] pages) {
+    int entry = entry(page);
+    if (lastEntry >= 0) {
+      successors[lastEntry] = page;
+    }
+    lastEntry = entry;
+    int count = 0;
+    for (long next = successors[entry]; next != NONE && next != page && count < degree;
+        next = successors[entry(next)]) {
+      pages[count++] = next;
+    }
+    return count;
+  }
+
+  /**
+   * Gets the table entry of a page, adding one without a successor.
+   */
+  private int entry(long page) {
+    int entry = index.get(page);
+    if (entry == LongIntMap.MISSING) {
+      entry = index.size();
+      if (entry == successors.length) {
+        successors = Arrays.copyOf(successors, entry * 2);
+      }
+      successors[entry] = NONE;
+      index.put(page, entry);
+    }
+    return entry;
+  }
+}
@@ -0,0 +1,114 @@
+package simulation;
+
+import java.util.Locale;
+
+/**
+ * The type Miss ratio curve.
+ * Page faults of LRU for every frame count, derived from a histogram of
+ * stack distances. Frame counts beyond the number of distinct pages only
+ * fault on first references.
+ */
+public class MissRatioCurve {
+  private final long references;
+  private final long[] pageFaults;
+
+  /**
+   * Instantiates a new Miss ratio curve.
+   *
+   * @param references the number of references processed
+   * @param coldMisses the number of first references to a page
+   * @param histogram the number of references at each stack distance, from 1
+   */
+  MissRatioCurve(long references, long coldMisses, long[] histogram) {
+    int maxDistance = histogram.length - 1;
+    while (maxDistance > 0 && histogram[maxDistance] == 0) {
+      maxDistance--;
+    }
+    this.references = references;
+    this.pageFaults = new long[maxDistance + 1];
+    long faults = coldMisses;
+    for (int frames = maxDistance; frames >= 0; frames--) {
+      pageFaults[frames] = faults;
+      faults += histogram[frames];
+    }
+  }
+
+  /**
+   * Gets references.
+   *
+   * @return the number of references processed
+   */
+  public long getReferences() {return references;}
+
+  /**
+   * Gets the smallest frame count from which only first references fault.
+   *
+   * @return the largest stack distance seen
+   */
+  public int getMaxDistance() {return pageFaults.length - 1;}
+
+  /**
+   * Gets page faults.
+   *
+   * @param memoryCapacity the number of frames
+   * @return the page faults of LRU with that many frames
+   */
+  public long getPageFaults(int memoryCapacity) {
+    return pageFaults[Math.min(memoryCapacity, pageFaults.length - 1)];
+  }
+
+  /**
+   * Gets miss ratio.
+   *
+   * @param memoryCapacity the number of frames
+   * @return the miss ratio of LRU with that many frames, 0 for an empty trace
+   */
+  public double getMissRatio(int memoryCapacity) {
+    return references == 0 ? 0 : (double) getPageFaults(memoryCapacity) / references;
+  }
+
+  /**
+   * Gets the result LRU would report for a frame count, without victims.
+   * Every fault but the first reference to a page reads an evicted page back.
+   *
+   * @param memoryCapacity the number of frames
+   * @return the result
+   */
+  public SimulationResult getResult(int memoryCapacity) {
+    long faults = getPageFaults(memoryCapacity);
+    return new SimulationResult(memoryCapacity, references, faults, new long[0], 0,
+        faults - pageFaults[pageFaults.length - 1], 0, 0, 0, 0);
+  }
+
+  /**
+   * Formats the curve at some frame counts as CSV with a header line.
+   *
+   * @param frameCounts the frame counts
+   * @return the CSV text
+   */
+  public String toCsv(int[] frameCounts) {
+    StringBuilder csv = new StringBuilder("frames,references,faults,missRatio\n");
+    for (int frames : frameCounts) {
+      csv.append(String.format(Locale.ROOT, "%d,%d,%d,%.6f\n", frames, references,
+          getPageFaults(frames), getMissRatio(frames)));
+    }
+    return csv.toString();
+  }
+
+  /**
+   * Formats the curve at some frame counts as a JSON array of objects.
+   *
+   * @param frameCounts the frame counts
+   * @return the JSON text
+   */
+  public String toJson(int[] frameCounts) {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < frameCounts.length; i++) {
+      json.append(i == 0 ? "\n" : ",\n").append(String.format(Locale.ROOT,
+          "  {\"frames\": %d, \"references\": %d, \"faults\": %d, \"missRatio\": %.6f}",
+          frameCounts[i], references, getPageFaults(frameCounts[i]),
+          getMissRatio(frameCounts[i])));
+    }
+    return json.append("\n]\n").toString();
+  }
+}
@@ -0,0 +1,180 @@
+package simulation;
+
+import java.util.List;
+import java.util.Locale;
+import simulation.MultiProcessSimulation.Replacement;
+
+/**
+ * The type Multi process result.
+ * Immutable summary of a multi-process run, in total and per process id.
+ */
+public class MultiProcessResult {
+  private final ReplacementPolicyProvider algorithm;
+  private final Replacement replacement;
+  private final SimulationResult total;
+  private final int[] pages;
+  private final int[] frames;
+  private final long[] references;
+  private final long[] pageFaults;
+  private final long[] stolen;
+
+  /**
+   * Instantiates a new Multi process result.
+   *
+   * @param algorithm the replacement algorithm
+   * @param replacement global or local replacement
+   * @param total the result over all processes
+   * @param pages the number of distinct pages of every process
+   * @param frames the frames of every process, at the end of a global run
+   * @param references the number of references of every process
+   * @param pageFaults the page faults of every process
+   * @param stolen the page faults of every process that evicted a page of another one
+   */
+  MultiProcessResult(ReplacementPolicyProvider algorithm, Replacement replacement,
+      SimulationResult total, int[] pages, int[] frames, long[] references, long[] pageFaults,
+      long[] stolen) {
+    this.algorithm = algorithm;
+    this.replacement = replacement;
+    this.total = total;
+    this.pages = pages;
+    this.frames = frames;
+    this.references = references;
+    this.pageFaults = pageFaults;
+    this.stolen = stolen;
+  }
+
+  /**
+   * Gets algorithm.
+   *
+   * @return the replacement algorithm
+   */
+  public ReplacementPolicyProvider getAlgorithm() {return algorithm;}
+
+  /**
+   * Gets replacement.
+   *
+   * @return global or local replacement
+   */
+  public Replacement getReplacement() {return replacement;}
+
+  /**
+   * Gets total.
+   *
+   * @return the result over all processes, without victims
+   */
+  public SimulationResult getTotal() {return total;}
+
+  /**
+   * Gets process count.
+   *
+   * @return the number of process ids
+   */
+  public int getProcessCount() {return frames.length;}
+
+  /**
+   * Gets pages.
+   *
+   * @param pid the process id
+   * @return the number of distinct pages the process referenced
+   */
+  public int getPages(int pid) {return pages[pid];}
+
+  /**
+   * Gets frames.
+   *
+   * @param pid the process id
+   * @return the frames allocated to the process, or held by it at the end of a global run
+   */
+  public int getFrames(int pid) {return frames[pid];}
+
+  /**
+   * Gets references.
+   *
+   * @param pid the process id
+   * @return the number of references of the process
+   */
+  public long getReferences(int pid) {return references[pid];}
+
+  /**
+   * Gets page faults.
+   *
+   * @param pid the process id
+   * @return the page faults of the process
+   */
+  public long getPageFaults(int pid) {return pageFaults[pid];}
+
+  /**
+   * Gets stolen.
+   *
+   * @param pid the process id
+   * @return the page faults of the process that evicted a page of another
+   *     process, always 0 under local replacement
+   */
+  public long getStolen(int pid) {return stolen[pid];}
+
+  /**
+   * Gets hit ratio.
+   *
+   * @param pid the process id
+   * @return the hit ratio of the process, 0 without references
+   */
+  public double getHitRatio(int pid) {
+    return references[pid] == 0 ? 0 : 1 - (double) pageFaults[pid] / references[pid];
+  }
+
+  /**
+   * Formats the processes of results as CSV with a header line.
+   *
+   * @param results the results, one per algorithm
+   * @return the CSV text
+   */
+  public static String toCsv(List<MultiProcessResult> results) {
+    StringBuilder csv = new StringBuilder(
+        "algorithm,pid,pages,frames,references,faults,stolen,hitRatio\n");
+    for (MultiProcessResult result : results) {
+      for (int pid = 0; pid < result.frames.length; pid++) {
+        csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%d,%d,%.6f\n",
+            result.algorithm.name(), pid, result.pages[pid], result.frames[pid],
+            result.references[pid], result.pageFaults[pid], result.stolen[pid],
+            result.getHitRatio(pid)));
+      }
+    }
+    return csv.toString();
+  }
+
+  /**
+   * Formats the processes of results as a JSON array of objects.
+   *
+   * @param results the results, one per algorithm
+   * @return the JSON text
+   */
+  public static String toJson(List<MultiProcessResult> results) {
+    StringBuilder json = new StringBuilder("[");
+    boolean first = true;
+    for (MultiProcessResult result : results) {
+      for (int pid = 0; pid < result.frames.length; pid++) {
+        json.append(first ? "\n" : ",\n").append(String.format(Locale.ROOT,
+            "  {\"algorithm\": \"%s\", \"replacement\": \"%s\", \"pid\": %d, \"pages\": %d,"
+                + " \"frames\": %d, \"references\": %d, \"faults\": %d, \"stolen\": %d,"
+                + " \"hitRatio\": %.6f}",
+            result.algorithm.name(), result.replacement.name().toLowerCase(Locale.ROOT), pid,
+            result.pages[pid], result.frames[pid], result.references[pid],
+            result.pageFaults[pid], result.stolen[pid], result.getHitRatio(pid)));
+        first = false;
+      }
+    }
+    return json.append("\n]\n").toString();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder(replacement.name().toLowerCase(Locale.ROOT))
+        .append(' ').append(total);
+    for (int pid = 0; pid < frames.length; pid++) {
+      text.append(String.format("\n  pid=%d pages=%d frames=%d references=%d faults=%d"
+          + " stolen=%d hitRatio=%.4f", pid, pages[pid], frames[pid], references[pid],
+          pageFaults[pid], stolen[pid], getHitRatio(pid)));
+    }
+    return text.toString();
+  }
+}
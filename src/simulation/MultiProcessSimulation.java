@@ -0,0 +1,259 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import simulation.Simulation.Page;
+
+/**
+ * The type Multi process simulation.
+ * Simulates several processes sharing physical memory under one replacement
+ * algorithm.
+ * <ul>
+ * <li>With global replacement a single simulation owns every frame and a
+ * fault may evict a page of any process, so processes take frames from
+ * each other as their working sets change.</li>
+ * <li>With local replacement every process gets a fixed share of the frames
+ * and only evicts its own pages. The shares are equal, proportional to the
+ * number of distinct pages of each process, or proportional to size times
+ * priority. Processes do not interact, so each runs as its own simulation,
+ * in parallel.</li>
+ * </ul>
+ * Pages are interned per simulation into primitive page tables, so both
+ * modes scale to hundreds of processes and millions of frames.
+ */
+public class MultiProcessSimulation {
+
+  /**
+   * The enum Replacement.
+   * Which pages a faulting process may evict.
+   */
+  public enum Replacement {
+    /**
+     * Any page in memory.
+     */
+    GLOBAL,
+    /**
+     * Only pages of the faulting process, within its own frames.
+     */
+    LOCAL
+  }
+
+  /**
+   * The enum Allocation.
+   * How frames are shared out among processes under local replacement.
+   */
+  public enum Allocation {
+    /**
+     * The same number of frames for every process.
+     */
+    EQUAL,
+    /**
+     * Frames proportional to the number of distinct pages of a process.
+     */
+    PROPORTIONAL,
+    /**
+     * Frames proportional to the number of distinct pages of a process
+     * times its priority.
+     */
+    PRIORITY
+  }
+
+  private final ReplacementPolicyProvider policy;
+  private final int memoryCapacity;
+  private final Replacement replacement;
+  private Allocation allocation = Allocation.PROPORTIONAL;
+  private int[] priorities = {1};
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Instantiates a new Multi process simulation.
+   *
+   * @param policy the replacement algorithm
+   * @param memoryCapacity the number of physical frames shared by all processes
+   * @param replacement global or local replacement
+   */
+  public MultiProcessSimulation(ReplacementPolicyProvider policy, int memoryCapacity,
+      Replacement replacement) {
+    if (memoryCapacity <= 0) {
+      throw new IllegalArgumentException("Memory capacity must be positive");
+    }
+    this.policy = policy;
+    this.memoryCapacity = memoryCapacity;
+    this.replacement = replacement;
+  }
+
+  /**
+   * Sets how frames are shared out under local replacement.
+   *
+   * @param allocation the allocation, proportional by default
+   */
+  public void setAllocation(Allocation allocation) {
+    this.allocation = allocation;
+  }
+
+  /**
+   * Sets the priorities of the processes for {@link Allocation#PRIORITY}.
+   *
+   * @param priorities the positive priority of every process id, repeated
+   *     cyclically when there are more processes
+   */
+  public void setPriorities(int[] priorities) {
+    if (priorities.length == 0 || Arrays.stream(priorities).anyMatch(p -> p <= 0)) {
+      throw new IllegalArgumentException("Priorities must be positive");
+    }
+    this.priorities = priorities.clone();
+  }
+
+  /**
+   * Sets the number of processes simulated at once under local replacement.
+   *
+   * @param parallelism the number of worker threads
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Runs the simulation.
+   *
+   * @param trace the interleaved references of all processes
+   * @return the result, in total and per process
+   */
+  public MultiProcessResult run(MultiProcessTrace trace) {
+    return replacement == Replacement.GLOBAL ? global(trace) : local(trace);
+  }
+
+  /**
+   * Runs every process in one simulation over the keys, counting the faults
+   * of each process and the frames it takes from others. The distinct pages
+   * of every process are read from the page table of the simulation.
+   */
+  private MultiProcessResult global(MultiProcessTrace trace) {
+    int processes = trace.getProcessCount();
+    ReferenceTrace keys = trace.getKeys();
+    long[] references = new long[processes];
+    for (int i = 0; i < keys.size(); i++) {
+      references[MultiProcessTrace.pidOf(keys.get(i))]++;
+    }
+    long[] faults = new long[processes];
+    long[] stolen = new long[processes];
+    int[] frames = new int[processes];
+    Simulation simulation = new Simulation(memoryCapacity, policy);
+    simulation.setRecordVictims(false);
+    simulation.setListener(new SimulationListener() {
+      @Override
+      public void pageFault(Simulation simulation, Page page, Page victim) {
+        int pid = MultiProcessTrace.pidOf(page.getNumber());
+        faults[pid]++;
+        if (victim != null && MultiProcessTrace.pidOf(victim.getNumber()) != pid) {
+          stolen[pid]++;
+        }
+      }
+
+      @Override
+      public void simulationFinished(Simulation simulation, SimulationResult result) {
+        for (Page page : simulation.getAllocatedPages()) {
+          frames[MultiProcessTrace.pidOf(page.getNumber())]++;
+        }
+      }
+    });
+    SimulationResult total = simulation.runSimulation(keys);
+    int[] sizes = new int[processes];
+    for (int page = 0; page < simulation.getPageCount(); page++) {
+      sizes[MultiProcessTrace.pidOf(simulation.getPageNumber(page))]++;
+    }
+    return new MultiProcessResult(policy, replacement, total, sizes, frames, references, faults,
+        stolen);
+  }
+
+  /**
+   * Shares out the frames and runs every process as its own simulation.
+   */
+  private MultiProcessResult local(MultiProcessTrace trace) {
+    int processes = trace.getProcessCount();
+    ReferenceTrace[] split = trace.split();
+    int[] sizes = new int[processes];
+    long[] references = new long[processes];
+    long[] faults = new long[processes];
+    long[] swapIns = new long[processes];
+    int[] frames;
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.submit(() -> IntStream.range(0, processes).parallel().forEach(pid -> {
+        references[pid] = split[pid].size();
+        sizes[pid] = split[pid].countPages();
+      })).join();
+      double[] weights = new double[processes];
+      for (int pid = 0; pid < processes; pid++) {
+        if (references[pid] == 0) {
+          continue;
+        }
+        switch (allocation) {
+          case EQUAL:
+            weights[pid] = 1;
+            break;
+          case PROPORTIONAL:
+            weights[pid] = sizes[pid];
+            break;
+          default:
+            weights[pid] = (double) sizes[pid] * priorities[pid % priorities.length];
+        }
+      }
+      frames = allocate(memoryCapacity, weights);
+      pool.submit(() -> IntStream.range(0, processes).parallel()
+          .filter(pid -> references[pid] > 0)
+          .forEach(pid -> {
+            Simulation simulation = new Simulation(frames[pid], policy);
+            simulation.setRecordVictims(false);
+            SimulationResult result = simulation.runSimulation(split[pid]);
+            faults[pid] = result.getPageFaults();
+            swapIns[pid] = result.getSwapIns();
+          })).join();
+    } finally {
+      pool.shutdown();
+    }
+    SimulationResult total = new SimulationResult(memoryCapacity, trace.size(),
+        Arrays.stream(faults).sum(), new long[0], 0, Arrays.stream(swapIns).sum(), 0, 0, 0, 0);
+    return new MultiProcessResult(policy, replacement, total, sizes, frames, references, faults,
+        new long[processes]);
+  }
+
+  /**
+   * Shares out frames in proportion to weights. Every process with a
+   * positive weight gets at least one frame; the rest are split in
+   * proportion, rounding so the largest remainders get the frames left over.
+   *
+   * @param memoryCapacity the number of frames
+   * @param weights the weight of every process, 0 for processes without frames
+   * @return the frames of every process
+   * @throws IllegalArgumentException if there are fewer frames than weighted processes
+   */
+  static int[] allocate(int memoryCapacity, double[] weights) {
+    int[] frames = new int[weights.length];
+    int[] active = IntStream.range(0, weights.length).filter(pid -> weights[pid] > 0).toArray();
+    if (active.length > memoryCapacity) {
+      throw new IllegalArgumentException("Local replacement needs at least one frame per process: "
+          + active.length + " processes, " + memoryCapacity + " frames");
+    }
+    if (active.length == 0) {
+      return frames;
+    }
+    double total = Arrays.stream(weights).sum();
+    int spare = memoryCapacity - active.length;
+    int left = spare;
+    double[] remainders = new double[weights.length];
+    for (int pid : active) {
+      double share = spare * weights[pid] / total;
+      frames[pid] = 1 + (int) share;
+      left -= (int) share;
+      remainders[pid] = share - (int) share;
+    }
+    Integer[] byRemainder = Arrays.stream(active).boxed().toArray(Integer[]::new);
+    Arrays.sort(byRemainder, (a, b) -> Double.compare(remainders[b], remainders[a]));
+    for (int i = 0; i < left; i++) {
+      frames[byRemainder[i % byRemainder.length]]++;
+    }
+    return frames;
+  }
+}
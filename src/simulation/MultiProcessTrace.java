@@ -0,0 +1,199 @@
+package simulation;
+
+import java.io.IOException;
+import java.util.List;
+import trace.TraceReader;
+
+/**
+ * The type Multi process trace.
+ * Interleaved references of several processes sharing physical memory.
+ * Every reference is stored as one key holding the process id above the
+ * low {@link #PAGE_BITS} bits of the page number, so the whole trace lives
+ * in a single primitive {@link ReferenceTrace} and the same page number of
+ * two processes is two different pages.
+ */
+public final class MultiProcessTrace {
+  /**
+   * Bits of the key holding the page number.
+   */
+  public static final int PAGE_BITS = 40;
+  /**
+   * The largest process id.
+   */
+  public static final int MAX_PID = (1 << (Long.SIZE - 1 - PAGE_BITS)) - 1;
+
+  private final ReferenceTrace keys;
+  private final int processCount;
+
+  private MultiProcessTrace(ReferenceTrace keys, int processCount) {
+    this.keys = keys;
+    this.processCount = processCount;
+  }
+
+  /**
+   * Reads a trace of process id and page number pairs.
+   *
+   * @param reader the reader, alternating process ids and page numbers, read
+   *     to the end but not closed
+   * @return the trace
+   * @throws IOException if the trace cannot be read or ends within a pair
+   */
+  public static MultiProcessTrace read(TraceReader reader) throws IOException {
+    Builder builder = new Builder();
+    for (long pid = reader.next(); pid != TraceReader.END; pid = reader.next()) {
+      long page = reader.next();
+      if (page == TraceReader.END) {
+        throw new IOException("Trace ends after process id " + pid);
+      }
+      if (pid > MAX_PID) {
+        throw new IOException("Process id out of range: " + pid);
+      }
+      builder.add((int) pid, page);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Interleaves the traces of several processes round robin, as a scheduler
+   * with a fixed time slice would. Process ids are the list indices.
+   *
+   * @param processes the trace of every process
+   * @param quantum the number of references a process runs before the next one
+   * @return the trace
+   */
+  public static MultiProcessTrace interleave(List<ReferenceTrace> processes, int quantum) {
+    if (quantum <= 0) {
+      throw new IllegalArgumentException("Quantum must be positive");
+    }
+    Builder builder = new Builder();
+    int[] positions = new int[processes.size()];
+    for (boolean running = true; running; ) {
+      running = false;
+      for (int pid = 0; pid < processes.size(); pid++) {
+        ReferenceTrace process = processes.get(pid);
+        int end = Math.min(process.size(), positions[pid] + quantum);
+        for (int i = positions[pid]; i < end; i++) {
+          builder.add(pid, process.get(i));
+        }
+        positions[pid] = end;
+        running |= end < process.size();
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Gets the key of a page of a process.
+   *
+   * @param pid the process id
+   * @param page the page number
+   * @return the key
+   */
+  public static long key(int pid, long page) {
+    return (long) pid << PAGE_BITS | page;
+  }
+
+  /**
+   * Gets the process id of a key.
+   *
+   * @param key the key
+   * @return the process id
+   */
+  public static int pidOf(long key) {
+    return (int) (key >>> PAGE_BITS);
+  }
+
+  /**
+   * Gets the page number of a key.
+   *
+   * @param key the key
+   * @return the page number within its process
+   */
+  public static long pageOf(long key) {
+    return key & ((1L << PAGE_BITS) - 1);
+  }
+
+  /**
+   * Gets the number of references.
+   *
+   * @return the size
+   */
+  public int size() {
+    return keys.size();
+  }
+
+  /**
+   * Gets the number of process ids, one more than the largest.
+   *
+   * @return the process count
+   */
+  public int getProcessCount() {
+    return processCount;
+  }
+
+  /**
+   * Gets the references of all processes as keys, see {@link #key(int, long)}.
+   *
+   * @return the trace of keys
+   */
+  public ReferenceTrace getKeys() {
+    return keys;
+  }
+
+  /**
+   * Gets the references of every process, in their order.
+   *
+   * @return the page numbers of each process, indexed by process id
+   */
+  public ReferenceTrace[] split() {
+    ReferenceTrace.Builder[] builders = new ReferenceTrace.Builder[processCount];
+    for (int pid = 0; pid < processCount; pid++) {
+      builders[pid] = new ReferenceTrace.Builder();
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      long key = keys.get(i);
+      builders[pidOf(key)].add(pageOf(key));
+    }
+    ReferenceTrace[] processes = new ReferenceTrace[processCount];
+    for (int pid = 0; pid < processCount; pid++) {
+      processes[pid] = builders[pid].build();
+    }
+    return processes;
+  }
+
+  /**
+   * The type Builder.
+   */
+  public static class Builder {
+    private final ReferenceTrace.Builder keys = new ReferenceTrace.Builder();
+    private int processCount = 0;
+
+    /**
+     * Appends a reference.
+     *
+     * @param pid the process id
+     * @param page the page number
+     * @return this builder
+     */
+    public Builder add(int pid, long page) {
+      if (pid < 0 || pid > MAX_PID) {
+        throw new IllegalArgumentException("Process id out of range: " + pid);
+      }
+      if (page < 0 || page >>> PAGE_BITS != 0) {
+        throw new IllegalArgumentException("Page number out of range: " + page);
+      }
+      keys.add(key(pid, page));
+      processCount = Math.max(processCount, pid + 1);
+      return this;
+    }
+
+    /**
+     * Builds the trace.
+     *
+     * @return the trace
+     */
+    public MultiProcessTrace build() {
+      return new MultiProcessTrace(keys.build(), processCount);
+    }
+  }
+}
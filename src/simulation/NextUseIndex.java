@@ -0,0 +1,57 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * The type Next use index.
+ * Immutable next-use index of an in-memory trace, built in one backward
+ * pass. Any number of runs, including concurrent ones, can read it through
+ * their own {@link Lookahead}.
+ */
+final class NextUseIndex {
+  private final int[] nextUse;
+
+  private NextUseIndex(int[] nextUse) {
+    this.nextUse = nextUse;
+  }
+
+  /**
+   * Builds the index of a trace.
+   *
+   * @param referenceTrace the reference trace
+   * @return the index
+   */
+  static NextUseIndex of(ReferenceTrace referenceTrace) {
+    int[] nextUse = new int[referenceTrace.size()];
+    PageTable pages = new PageTable();
+    int[] seen = new int[0];
+    for (int i = nextUse.length - 1; i >= 0; i--) {
+      int id = pages.intern(referenceTrace.get(i)).getId();
+      if (id >= seen.length) {
+        int length = seen.length;
+        seen = Arrays.copyOf(seen, Math.max(id + 1, length * 2));
+        Arrays.fill(seen, length, seen.length, -1);
+      }
+      nextUse[i] = seen[id];
+      seen[id] = i;
+    }
+    return new NextUseIndex(nextUse);
+  }
+
+  /**
+   * Creates a lookahead reading this index from the first reference.
+   *
+   * @return the lookahead
+   */
+  Lookahead lookahead() {
+    return new Lookahead() {
+      private int idx = 0;
+
+      @Override
+      public long next() {
+        int next = nextUse[idx++];
+        return next < 0 ? NEVER : next;
+      }
+    };
+  }
+}
@@ -1,35 +1,52 @@
 package simulation;
 
-import java.util.List;
-
 /**
  * The type Opt algorithm.
+ * The {@link Lookahead} tells where every reference is used next; allocated
+ * frames are kept in a heap keyed by next use so each reference costs
+ * O(log frames).
  */
-public class OPT_Algorithm extends Simulation {
+public class OPT_Algorithm implements ReplacementPolicy {
+  private final PolicyContext context;
+  private final int[] frames;
+  private final FrameHeap heap;
+  private long victimNextUse = Lookahead.NEVER;
 
   /**
    * Instantiates a new Opt algorithm.
    *
-   * @param memoryCapacity the memory capacity
-   * @param referenceString the reference string
+   * @param context the simulation, run with a lookahead
    */
-  public OPT_Algorithm(int memoryCapacity, List<String> referenceString) {
-    super(memoryCapacity, referenceString);
+  public OPT_Algorithm(PolicyContext context) {
+    this.context = context;
+    frames = new int[context.getMemoryCapacity()];
+    heap = new FrameHeap(context.getMemoryCapacity());
+  }
+
+  @Override
+  public void onHit(int page, int frame) {
+    heap.set(frame, -context.nextUse());
+  }
+
+  @Override
+  public void onMiss(int page, int frame) {
+    frames[frame] = page;
+    heap.set(frame, -context.nextUse());
   }
 
   /**
-   * sets the method to determine victims to replace
-   * This method returns the index of the last occurrence of the specified element in this list
-   * It will return '-1' if the list does not contain the element.
+   * the victim is the page used farthest in the future, pages that are never
+   * used again first, ties going to the topmost frame
    */
   @Override
-  protected void setVictimPriorities(){
-    for (Page page : getReferenceList()) {
-      page.setReplacementPriority(getReferenceList()
-          .subList(currentIdx + 1, getReferenceList().size())
-          .lastIndexOf(page));
+  public int selectVictim() {
+    return frames[heap.peek()];
+  }
 
-    }
+  @Override
+  public void onEvict(int victim, int frame) {
+    victimNextUse = -heap.key(frame);
+    heap.remove(frame);
   }
 
   /**
@@ -37,25 +54,21 @@ public class OPT_Algorithm extends Simulation {
    * @return String of algorithms unique intro text.
    */
   @Override
-  protected String algoSpecificIntro() {
+  public String intro() {
     return "the optimal page-replacement algorithm is an idealized algorithm in which the victim "
         + "frame is the one that will not be accessed for the longest period of time\n";
   }
 
   /**
    * Method to add algorithms unique text to default text when page miss occurs.
-   * @param victim the victim page
+   * @param victim the victim page id
    * @return String of algorithms unique missed page text.
    */
   @Override
-  protected String algoMissText( Page victim) {
-    int occursAt = getReferenceList()
-        .subList(currentIdx + 1, getReferenceList().size())
-        .lastIndexOf(victim);
-    return (occursAt == -1) ?
+  public String missText(int victim) {
+    return (victimNextUse == Lookahead.NEVER) ?
         "Which doesn't occur again in the reference string" :
-        "which occurs again at index"+occursAt+"in the reference string";
+        "which occurs again at index " + victimNextUse + " in the reference string";
   }
 
 }
-
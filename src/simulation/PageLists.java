@@ -0,0 +1,118 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * The type Page lists.
+ * A fixed number of intrusive doubly-linked lists over page ids, stored in
+ * primitive arrays. A page is in at most one of the lists at a time. Lists
+ * run from least to most recently added, and every operation is O(1).
+ */
+class PageLists {
+  /**
+   * Returned for an empty list or a page in no list.
+   */
+  static final int NONE = -1;
+
+  private final int lists;
+  private final int[] sizes;
+  private int[] prev;
+  private int[] next;
+  private byte[] owner;
+
+  /**
+   * Instantiates new Page lists.
+   *
+   * @param lists the number of lists
+   */
+  PageLists(int lists) {
+    this.lists = lists;
+    sizes = new int[lists];
+    prev = new int[lists + 16];
+    next = new int[lists + 16];
+    owner = new byte[16];
+    Arrays.fill(owner, (byte) NONE);
+    for (int list = 0; list < lists; list++) {
+      prev[list] = list;
+      next[list] = list;
+    }
+  }
+
+  /**
+   * Appends a page at the most recent end of a list.
+   *
+   * @param list the list
+   * @param id the page id, in no list
+   */
+  void addLast(int list, int id) {
+    if (id >= owner.length) {
+      int old = owner.length;
+      int length = Math.max(id + 1, old * 2);
+      owner = Arrays.copyOf(owner, length);
+      Arrays.fill(owner, old, length, (byte) NONE);
+      prev = Arrays.copyOf(prev, lists + length);
+      next = Arrays.copyOf(next, lists + length);
+    }
+    int node = lists + id;
+    prev[node] = prev[list];
+    next[node] = list;
+    next[prev[list]] = node;
+    prev[list] = node;
+    owner[id] = (byte) list;
+    sizes[list]++;
+  }
+
+  /**
+   * Removes a page from its list.
+   *
+   * @param id the page id, in a list
+   */
+  void remove(int id) {
+    int node = lists + id;
+    next[prev[node]] = next[node];
+    prev[next[node]] = prev[node];
+    sizes[owner[id]]--;
+    owner[id] = NONE;
+  }
+
+  /**
+   * Moves a page to the most recent end of a list.
+   *
+   * @param list the list
+   * @param id the page id, in a list
+   */
+  void moveToLast(int list, int id) {
+    remove(id);
+    addLast(list, id);
+  }
+
+  /**
+   * Gets the least recently added page of a list.
+   *
+   * @param list the list
+   * @return the page id or {@link #NONE} if the list is empty
+   */
+  int first(int list) {
+    return next[list] == list ? NONE : next[list] - lists;
+  }
+
+  /**
+   * Gets the list of a page.
+   *
+   * @param id the page id
+   * @return the list or {@link #NONE}
+   */
+  int listOf(int id) {
+    return id < owner.length ? owner[id] : NONE;
+  }
+
+  /**
+   * Gets the size of a list.
+   *
+   * @param list the list
+   * @return the number of pages in it
+   */
+  int size(int list) {
+    return sizes[list];
+  }
+}
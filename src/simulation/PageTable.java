@@ -0,0 +1,79 @@
+package simulation;
+
+import java.util.Arrays;
+import simulation.Simulation.Page;
+
+/**
+ * The type Page table.
+ * Interns page numbers into {@link Page} instances with dense int ids for a
+ * single simulation, so algorithms can index plain arrays by page id and no
+ * state is shared between runs. Small page numbers are looked up in a direct
+ * array, larger ones in an open addressing hash table.
+ */
+class PageTable {
+  /**
+   * Page numbers below this are mapped through the direct array.
+   */
+  static final int DIRECT_LIMIT = 1 << 16;
+
+  private int[] direct = new int[16];
+  private final LongIntMap hashed = new LongIntMap();
+  private Page[] pages = new Page[16];
+  private int size = 0;
+
+  /**
+   * Gets the page for a page number, creating it on first use.
+   * The n-th distinct page number gets id n - 1.
+   *
+   * @param pageNumber the page number, not negative
+   * @return the page
+   */
+  Page intern(long pageNumber) {
+    if (pageNumber < DIRECT_LIMIT) {
+      int number = (int) pageNumber;
+      if (number >= direct.length) {
+        direct = Arrays.copyOf(direct, Math.min(DIRECT_LIMIT,
+            Math.max(number + 1, direct.length * 2)));
+      }
+      int id = direct[number] - 1;
+      if (id < 0) {
+        id = add(pageNumber);
+        direct[number] = id + 1;
+      }
+      return pages[id];
+    }
+    int id = hashed.get(pageNumber);
+    if (id == LongIntMap.MISSING) {
+      id = add(pageNumber);
+      hashed.put(pageNumber, id);
+    }
+    return pages[id];
+  }
+
+  /**
+   * Gets the page of an id.
+   *
+   * @param id the id, less than {@link #size()}
+   * @return the page
+   */
+  Page get(int id) {
+    return pages[id];
+  }
+
+  /**
+   * Gets the number of interned pages.
+   *
+   * @return the size
+   */
+  int size() {
+    return size;
+  }
+
+  private int add(long pageNumber) {
+    if (size == pages.length) {
+      pages = Arrays.copyOf(pages, size * 2);
+    }
+    pages[size] = new Page(size, pageNumber);
+    return size++;
+  }
+}
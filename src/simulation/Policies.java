@@ -0,0 +1,53 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * The type Policies.
+ * Registry of every replacement policy: the built-in {@link Algorithm}s
+ * followed by the providers found by {@link ServiceLoader}.
+ */
+public final class Policies {
+  private static volatile List<ReplacementPolicyProvider> providers;
+
+  private Policies() {}
+
+  /**
+   * Gets every policy, built-in ones first.
+   *
+   * @return the providers, in a fixed order
+   */
+  public static List<ReplacementPolicyProvider> all() {
+    if (providers == null) {
+      List<ReplacementPolicyProvider> found = new ArrayList<>(Arrays.asList(Algorithm.values()));
+      for (ReplacementPolicyProvider provider
+          : ServiceLoader.load(ReplacementPolicyProvider.class)) {
+        found.add(provider);
+      }
+      providers = Collections.unmodifiableList(found);
+    }
+    return providers;
+  }
+
+  /**
+   * Gets a policy by name or display name, ignoring case, so both
+   * {@code TWO_Q} and {@code 2Q} select the same policy.
+   *
+   * @param name the name or display name
+   * @return the provider
+   * @throws IllegalArgumentException if no policy has that name
+   */
+  public static ReplacementPolicyProvider get(String name) {
+    for (ReplacementPolicyProvider provider : all()) {
+      if (provider.name().equalsIgnoreCase(name)
+          || provider.displayName().equalsIgnoreCase(name)) {
+        return provider;
+      }
+    }
+    throw new IllegalArgumentException("Unknown algorithm " + name);
+  }
+}
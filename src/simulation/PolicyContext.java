@@ -0,0 +1,48 @@
+package simulation;
+
+/**
+ * The interface Policy context.
+ * What a {@link ReplacementPolicy} may ask the simulation running it.
+ */
+public interface PolicyContext {
+
+  /**
+   * Gets memory capacity.
+   *
+   * @return the number of physical frames
+   */
+  int getMemoryCapacity();
+
+  /**
+   * Gets the index of the reference currently being processed.
+   *
+   * @return the current index
+   */
+  long getCurrentIdx();
+
+  /**
+   * Gets the index the current reference's page is used next. Only valid
+   * inside the callbacks of a policy whose provider
+   * {@link ReplacementPolicyProvider#requiresLookahead() requires lookahead}.
+   *
+   * @return the next use, {@link Lookahead#NEVER} if not used again
+   */
+  long nextUse();
+
+  /**
+   * Gets the page number of a page id.
+   *
+   * @param page the page id
+   * @return the page number as it appears in the trace
+   */
+  long getPageNumber(int page);
+
+  /**
+   * Tells whether a resident page was written since it was loaded, so that
+   * evicting it costs a write-back.
+   *
+   * @param page the page id
+   * @return true if the page is resident and dirty
+   */
+  boolean isDirty(int page);
+}
@@ -0,0 +1,78 @@
+package simulation;
+
+import java.util.function.Supplier;
+
+/**
+ * The interface Prefetcher.
+ * A read-ahead stage consulted by a {@link Simulation} after every demand
+ * reference. The pages it predicts are loaded into frames ahead of demand,
+ * evicting victims chosen by the replacement policy like any fault, but
+ * without counting as page faults. The referenced page and the pages of the
+ * same batch are never evicted; the batch stops instead. A prefetched page
+ * referenced before it is evicted was a useful prefetch, one evicted first
+ * was wasted; the prefetcher hears of both, so it can adapt how far it
+ * reads ahead.
+ */
+public interface Prefetcher {
+
+  /**
+   * Gets the most pages predicted after one reference.
+   *
+   * @return the size of the array passed to {@link #predict(long, boolean, long[])}
+   */
+  int getDegree();
+
+  /**
+   * Predicts the pages to load after a demand reference. Pages already
+   * resident are skipped by the simulation.
+   *
+   * @param page the referenced page number
+   * @param fault true if the reference was a page fault
+   * @param pages the array to write the predicted page numbers to
+   * @return the number of pages written
+   */
+  int predict(long page, boolean fault, long[] pages);
+
+  /**
+   * Called the first time a prefetched page is referenced.
+   *
+   * @param page the page number
+   */
+  default void onUseful(long page) {}
+
+  /**
+   * Called when a prefetched page is evicted before it was referenced.
+   *
+   * @param page the page number
+   */
+  default void onWasted(long page) {}
+
+  /**
+   * Parses a prefetcher as {@code seq:MAX_WINDOW}, {@code stride:DEGREE} or
+   * {@code markov:DEGREE}.
+   *
+   * @param spec the prefetcher
+   * @return a supplier of new prefetchers, one per run
+   * @throws IllegalArgumentException if the prefetcher is unknown or invalid
+   */
+  static Supplier<Prefetcher> parse(String spec) {
+    String[] parts = spec.split(":");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Unknown prefetcher " + spec);
+    }
+    int value = Integer.parseInt(parts[1]);
+    if (value <= 0) {
+      throw new IllegalArgumentException("Prefetcher parameter must be positive: " + spec);
+    }
+    switch (parts[0].toLowerCase()) {
+      case "seq":
+        return () -> new SequentialPrefetcher(value);
+      case "stride":
+        return () -> new StridePrefetcher(value);
+      case "markov":
+        return () -> new MarkovPrefetcher(value);
+      default:
+        throw new IllegalArgumentException("Unknown prefetcher " + spec);
+    }
+  }
+}
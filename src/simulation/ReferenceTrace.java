@@ -0,0 +1,252 @@
+package simulation;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+import trace.TraceReader;
+
+/**
+ * The type Reference trace.
+ * Immutable page reference string backed by a primitive int array, four bytes
+ * per reference. Page numbers that fit in an int are stored as is; once a
+ * trace holds a larger page number, such as the page of a 64-bit virtual
+ * address, every reference is stored as an int code into a table of the
+ * distinct page numbers instead. Writes, when the trace has any, are kept
+ * as one bit per reference.
+ */
+public final class ReferenceTrace {
+  private final int[] pages;
+  private final long[] pageNumbers;
+  private final long[] writes;
+
+  /**
+   * Instantiates a new Reference trace.
+   *
+   * @param pages the page numbers, copied
+   */
+  public ReferenceTrace(int[] pages) {
+    for (int page : pages) {
+      checkPage(page);
+    }
+    this.pages = pages.clone();
+    this.pageNumbers = null;
+    this.writes = null;
+  }
+
+  private ReferenceTrace(int[] pages, long[] pageNumbers, long[] writes) {
+    this.pages = pages;
+    this.pageNumbers = pageNumbers;
+    this.writes = writes;
+  }
+
+  /**
+   * Creates a trace from a reference string of page numbers.
+   *
+   * @param referenceString the reference string, one page number per entry
+   * @return the trace
+   * @throws NumberFormatException if an entry is not a non-negative long
+   */
+  public static ReferenceTrace of(List<String> referenceString) {
+    Builder builder = new Builder();
+    for (String page : referenceString) {
+      builder.add(Long.parseLong(page.trim()));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Reads a whole trace into memory, with its writes.
+   *
+   * @param reader the reader, read to the end but not closed
+   * @return the trace
+   * @throws IOException if the trace cannot be read
+   */
+  public static ReferenceTrace read(TraceReader reader) throws IOException {
+    Builder builder = new Builder();
+    for (long page = reader.next(); page != TraceReader.END; page = reader.next()) {
+      builder.add(page, reader.isWrite());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Gets the number of references.
+   *
+   * @return the size
+   */
+  public int size() {
+    return pages.length;
+  }
+
+  /**
+   * Gets the page number at an index.
+   *
+   * @param index the index
+   * @return the page number
+   */
+  public long get(int index) {
+    return pageNumbers == null ? pages[index] : pageNumbers[pages[index]];
+  }
+
+  /**
+   * Tells whether the reference at an index writes its page.
+   *
+   * @param index the index
+   * @return true for a write
+   */
+  public boolean isWrite(int index) {
+    return writes != null && (writes[index >>> 6] & 1L << index) != 0;
+  }
+
+  /**
+   * Tells whether any reference writes its page.
+   *
+   * @return true if the trace has writes
+   */
+  public boolean hasWrites() {
+    return writes != null;
+  }
+
+  /**
+   * Counts the distinct pages. A trace of large page numbers already holds
+   * them in its code table; otherwise they are counted in a temporary map.
+   *
+   * @return the number of distinct pages
+   */
+  int countPages() {
+    if (pageNumbers != null) {
+      return pageNumbers.length;
+    }
+    LongIntMap seen = new LongIntMap();
+    for (int page : pages) {
+      if (seen.get(page) == LongIntMap.MISSING) {
+        seen.put(page, 0);
+      }
+    }
+    return seen.size();
+  }
+
+  /**
+   * Streams the page numbers in order.
+   *
+   * @return the stream
+   */
+  public LongStream stream() {
+    return pageNumbers == null
+        ? Arrays.stream(pages).asLongStream()
+        : Arrays.stream(pages).mapToLong(code -> pageNumbers[code]);
+  }
+
+  private static void checkPage(long page) {
+    if (page < 0) {
+      throw new IllegalArgumentException("Page numbers must not be negative: " + page);
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (pageNumbers == null) {
+      return Arrays.toString(pages);
+    }
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 0; i < pages.length; i++) {
+      builder.append(i == 0 ? "" : ", ").append(get(i));
+    }
+    return builder.append(']').toString();
+  }
+
+  /**
+   * The type Builder.
+   * Appends references into a growing int array, switching to table codes
+   * the first time a page number does not fit in an int.
+   */
+  public static class Builder {
+    private int[] pages = new int[16];
+    private int size = 0;
+    private LongIntMap codes;
+    private long[] pageNumbers;
+    private long[] writes;
+
+    /**
+     * Appends a reference that reads its page.
+     *
+     * @param page the page number
+     * @return this builder
+     */
+    public Builder add(long page) {
+      return add(page, false);
+    }
+
+    /**
+     * Appends a reference.
+     *
+     * @param page the page number
+     * @param write true if the reference writes the page
+     * @return this builder
+     */
+    public Builder add(long page, boolean write) {
+      checkPage(page);
+      if (codes == null && page > Integer.MAX_VALUE) {
+        encode();
+      }
+      if (size == pages.length) {
+        pages = Arrays.copyOf(pages, size * 2);
+      }
+      if (write) {
+        if (writes == null) {
+          writes = new long[(pages.length + 63) >>> 6];
+        } else if (writes.length < (pages.length + 63) >>> 6) {
+          writes = Arrays.copyOf(writes, (pages.length + 63) >>> 6);
+        }
+        writes[size >>> 6] |= 1L << size;
+      }
+      pages[size++] = codes == null ? (int) page : code(page);
+      return this;
+    }
+
+    /**
+     * Gets the number of references added so far.
+     *
+     * @return the size
+     */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Builds the trace.
+     *
+     * @return the trace
+     */
+    public ReferenceTrace build() {
+      return new ReferenceTrace(Arrays.copyOf(pages, size),
+          codes == null ? null : Arrays.copyOf(pageNumbers, codes.size()),
+          writes == null ? null : Arrays.copyOf(writes, (size + 63) >>> 6));
+    }
+
+    /**
+     * Rewrites the references added so far as table codes.
+     */
+    private void encode() {
+      codes = new LongIntMap();
+      pageNumbers = new long[16];
+      for (int i = 0; i < size; i++) {
+        pages[i] = code(pages[i]);
+      }
+    }
+
+    private int code(long page) {
+      int code = codes.get(page);
+      if (code == LongIntMap.MISSING) {
+        code = codes.size();
+        if (code == pageNumbers.length) {
+          pageNumbers = Arrays.copyOf(pageNumbers, code * 2);
+        }
+        pageNumbers[code] = page;
+        codes.put(page, code);
+      }
+      return code;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package simulation;
+
+/**
+ * The interface Replacement policy.
+ * Decides which page to evict when memory is full. The simulation owns the
+ * frames and tells the policy about every reference through these callbacks;
+ * the policy keeps whatever structures it needs to answer
+ * {@link #selectVictim()} quickly. Pages are identified by dense int ids,
+ * numbered from 0 in order of first reference, so policies can index plain
+ * arrays by page id. The first reference to a page is always a miss, so
+ * those arrays only need to grow in {@link #onMiss(int, int)}.
+ * <p>
+ * A policy instance serves a single simulation run. Policies are supplied by
+ * a {@link ReplacementPolicyProvider}.
+ */
+public interface ReplacementPolicy {
+
+  /**
+   * Called when the referenced page is already allocated.
+   *
+   * @param page the referenced page id
+   * @param frame the frame holding the page
+   */
+  default void onHit(int page, int frame) {}
+
+  /**
+   * Called on every page fault, before a victim is selected, so adaptive
+   * policies can react to the faulting page first.
+   *
+   * @param page the page id about to be loaded
+   */
+  default void onFault(int page) {}
+
+  /**
+   * Called after a missing page has been loaded into a frame.
+   *
+   * @param page the loaded page id
+   * @param frame the frame the page was loaded into
+   */
+  default void onMiss(int page, int frame) {}
+
+  /**
+   * Selects the victim to be replaced. Only called when every frame is allocated.
+   *
+   * @return the id of an allocated page
+   */
+  int selectVictim();
+
+  /**
+   * Called after a victim has been removed from its frame.
+   *
+   * @param page the evicted page id
+   * @param frame the frame the victim was removed from
+   */
+  default void onEvict(int page, int frame) {}
+
+  /**
+   * Gets the text introducing the policy in a narrated simulation.
+   *
+   * @return the intro text, ending with a line break
+   */
+  default String intro() {
+    return "";
+  }
+
+  /**
+   * Gets the text explaining why a victim was chosen in a narrated simulation.
+   * Called after the victim has been replaced.
+   *
+   * @param victim the victim page id
+   * @return the text
+   */
+  default String missText(int victim) {
+    return "";
+  }
+}
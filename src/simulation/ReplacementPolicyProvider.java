@@ -0,0 +1,45 @@
+package simulation;
+
+/**
+ * The interface Replacement policy provider.
+ * Service interface for replacement policies. Besides the built-in
+ * {@link Algorithm}s, providers listed in a
+ * {@code META-INF/services/simulation.ReplacementPolicyProvider} file on the
+ * class path are found by {@link Policies}, so a policy can be added as a jar
+ * without changing the simulator.
+ */
+public interface ReplacementPolicyProvider {
+
+  /**
+   * Gets the name used to select the policy on the command line.
+   *
+   * @return the name, unique among all providers
+   */
+  String name();
+
+  /**
+   * Gets the name shown in menus.
+   *
+   * @return the display name
+   */
+  default String displayName() {
+    return name();
+  }
+
+  /**
+   * Whether the policy needs to know when each reference is used next.
+   *
+   * @return true if {@link PolicyContext#nextUse()} must be valid
+   */
+  default boolean requiresLookahead() {
+    return false;
+  }
+
+  /**
+   * Creates a policy for one simulation run.
+   *
+   * @param context the simulation running the policy
+   * @return the policy
+   */
+  ReplacementPolicy create(PolicyContext context);
+}
@@ -0,0 +1,175 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The interface Resident set controller.
+ * Sizes the resident set of one process while it runs, instead of giving it
+ * a fixed number of frames. The controller sees the references of its own
+ * process only, as dense page ids, and counts time in those references.
+ */
+public interface ResidentSetController {
+
+  /**
+   * References a page at the next virtual time of the process.
+   *
+   * @param page the page id, dense in order of first reference
+   * @return true if the page was not resident, a page fault
+   */
+  boolean reference(int page);
+
+  /**
+   * Gets resident size.
+   *
+   * @return the number of resident pages after the last reference
+   */
+  int getResidentSize();
+
+  /**
+   * Gets a working-set controller, keeping exactly the pages referenced
+   * within the last {@code window} references resident.
+   *
+   * @param window the working-set window, in references of the process
+   * @return the controller
+   */
+  static ResidentSetController workingSet(int window) {
+    return new WorkingSet(window);
+  }
+
+  /**
+   * Gets a page-fault-frequency controller. A fault within {@code threshold}
+   * references of the previous one grows the resident set by the page; a
+   * later fault first drops every page not referenced since the previous
+   * fault.
+   *
+   * @param threshold the longest time between faults that still grows the set
+   * @return the controller
+   */
+  static ResidentSetController pageFaultFrequency(int threshold) {
+    return new PageFaultFrequency(threshold);
+  }
+
+  /**
+   * Parses a controller as {@code ws:WINDOW} or {@code pff:THRESHOLD}.
+   *
+   * @param spec the controller
+   * @return a supplier of new controllers, one per process
+   * @throws IllegalArgumentException if the controller is unknown or invalid
+   */
+  static Supplier<ResidentSetController> parse(String spec) {
+    String[] parts = spec.split(":");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Unknown controller " + spec);
+    }
+    int value = Integer.parseInt(parts[1]);
+    if (value <= 0) {
+      throw new IllegalArgumentException("Controller parameter must be positive: " + spec);
+    }
+    switch (parts[0].toLowerCase()) {
+      case "ws":
+        return () -> workingSet(value);
+      case "pff":
+        return () -> pageFaultFrequency(value);
+      default:
+        throw new IllegalArgumentException("Unknown controller " + spec);
+    }
+  }
+
+  /**
+   * The type Working set.
+   * The pages referenced at the last {@code window} times are kept in a
+   * ring, so the page leaving the window is known in O(1); it leaves the
+   * working set unless it was referenced again since.
+   */
+  final class WorkingSet implements ResidentSetController {
+    private final int window;
+    private int[] ring = new int[16];
+    private long[] lastAccess = new long[16];
+    private long time = 0;
+    private int size = 0;
+
+    private WorkingSet(int window) {
+      if (window <= 0) {
+        throw new IllegalArgumentException("Working-set window must be positive");
+      }
+      this.window = window;
+      Arrays.fill(lastAccess, Long.MIN_VALUE);
+    }
+
+    @Override
+    public boolean reference(int page) {
+      if (page >= lastAccess.length) {
+        int old = lastAccess.length;
+        lastAccess = Arrays.copyOf(lastAccess, Math.max(page + 1, old * 2));
+        Arrays.fill(lastAccess, old, lastAccess.length, Long.MIN_VALUE);
+      }
+      boolean fault = lastAccess[page] < time - window;
+      if (fault) {
+        size++;
+      }
+      int slot = (int) (time % window);
+      if (time >= window) {
+        int leaving = ring[slot];
+        if (leaving != page && lastAccess[leaving] == time - window) {
+          size--;
+        }
+      } else if (slot == ring.length) {
+        ring = Arrays.copyOf(ring, (int) Math.min(window, ring.length * 2L));
+      }
+      ring[slot] = page;
+      lastAccess[page] = time++;
+      return fault;
+    }
+
+    @Override
+    public int getResidentSize() {return size;}
+  }
+
+  /**
+   * The type Page fault frequency.
+   * Resident pages are kept in order of last reference, so the pages not
+   * referenced since the previous fault are a prefix of the list and are
+   * dropped in amortized O(1) per reference.
+   */
+  final class PageFaultFrequency implements ResidentSetController {
+    private final int threshold;
+    private final PageLists resident = new PageLists(1);
+    private long[] lastAccess = new long[16];
+    private long time = 0;
+    private long lastFault = 0;
+
+    private PageFaultFrequency(int threshold) {
+      if (threshold <= 0) {
+        throw new IllegalArgumentException("Fault frequency threshold must be positive");
+      }
+      this.threshold = threshold;
+    }
+
+    @Override
+    public boolean reference(int page) {
+      if (page >= lastAccess.length) {
+        lastAccess = Arrays.copyOf(lastAccess, Math.max(page + 1, lastAccess.length * 2));
+      }
+      boolean fault = resident.listOf(page) == PageLists.NONE;
+      if (!fault) {
+        resident.moveToLast(0, page);
+      } else {
+        if (time - lastFault > threshold) {
+          for (int first = resident.first(0);
+              first != PageLists.NONE && lastAccess[first] < lastFault;
+              first = resident.first(0)) {
+            resident.remove(first);
+          }
+        }
+        resident.addLast(0, page);
+        lastFault = time;
+      }
+      lastAccess[page] = time++;
+      return fault;
+    }
+
+    @Override
+    public int getResidentSize() {return resident.size(0);}
+  }
+}
@@ -0,0 +1,142 @@
+package simulation;
+
+import java.util.Locale;
+
+/**
+ * The type Sampled curve.
+ * Miss ratio curve of one algorithm estimated from a spatially sampled
+ * trace, with the standard error of every point.
+ */
+public class SampledCurve {
+  private final ReplacementPolicyProvider algorithm;
+  private final double rate;
+  private final long references;
+  private final long sampledReferences;
+  private final int[] frameCounts;
+  private final double[] missRatios;
+  private final double[] errors;
+
+  /**
+   * Instantiates a new Sampled curve.
+   *
+   * @param algorithm the replacement algorithm
+   * @param rate the final sampling rate
+   * @param references the number of references in the trace
+   * @param sampledReferences the number of references sampled
+   * @param frameCounts the frame counts of the points
+   * @param missRatios the estimated miss ratio at each frame count
+   * @param errors the standard error of each estimate, NaN if unknown
+   */
+  SampledCurve(ReplacementPolicyProvider algorithm, double rate, long references,
+      long sampledReferences, int[] frameCounts, double[] missRatios, double[] errors) {
+    this.algorithm = algorithm;
+    this.rate = rate;
+    this.references = references;
+    this.sampledReferences = sampledReferences;
+    this.frameCounts = frameCounts;
+    this.missRatios = missRatios;
+    this.errors = errors;
+  }
+
+  /**
+   * Gets algorithm.
+   *
+   * @return the replacement algorithm
+   */
+  public ReplacementPolicyProvider getAlgorithm() {return algorithm;}
+
+  /**
+   * Gets rate.
+   *
+   * @return the sampling rate, at the end of the trace for a fixed sample size
+   */
+  public double getRate() {return rate;}
+
+  /**
+   * Gets references.
+   *
+   * @return the number of references in the trace
+   */
+  public long getReferences() {return references;}
+
+  /**
+   * Gets sampled references.
+   *
+   * @return the number of references simulated
+   */
+  public long getSampledReferences() {return sampledReferences;}
+
+  /**
+   * Gets the number of points.
+   *
+   * @return the number of frame counts estimated
+   */
+  public int size() {return frameCounts.length;}
+
+  /**
+   * Gets the frame count of a point.
+   *
+   * @param point the index of the point
+   * @return the frame count
+   */
+  public int getFrames(int point) {return frameCounts[point];}
+
+  /**
+   * Gets the estimated miss ratio of a point.
+   *
+   * @param point the index of the point
+   * @return the miss ratio
+   */
+  public double getMissRatio(int point) {return missRatios[point];}
+
+  /**
+   * Gets the standard error of a point.
+   *
+   * @param point the index of the point
+   * @return the standard error of the miss ratio, NaN if too few pages were sampled
+   */
+  public double getError(int point) {return errors[point];}
+
+  /**
+   * Formats the curve as CSV with a header line.
+   *
+   * @return the CSV text
+   */
+  public String toCsv() {
+    StringBuilder csv = new StringBuilder(
+        "algorithm,frames,references,sampled,rate,missRatio,error\n");
+    for (int i = 0; i < frameCounts.length; i++) {
+      csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.6g,%.6f,%.6f\n", algorithm.name(),
+          frameCounts[i], references, sampledReferences, rate, missRatios[i], errors[i]));
+    }
+    return csv.toString();
+  }
+
+  /**
+   * Formats the curve as a JSON array of objects. Unknown errors are null.
+   *
+   * @return the JSON text
+   */
+  public String toJson() {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < frameCounts.length; i++) {
+      json.append(i == 0 ? "\n" : ",\n").append(String.format(Locale.ROOT,
+          "  {\"algorithm\": \"%s\", \"frames\": %d, \"references\": %d, \"sampled\": %d,"
+              + " \"rate\": %.6g, \"missRatio\": %.6f, \"error\": %s}",
+          algorithm.name(), frameCounts[i], references, sampledReferences, rate, missRatios[i],
+          Double.isNaN(errors[i]) ? "null" : String.format(Locale.ROOT, "%.6f", errors[i])));
+    }
+    return json.append("\n]\n").toString();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < frameCounts.length; i++) {
+      text.append(String.format("%-9s frames=%d missRatio=%.4f error=%.4f\n", algorithm.name(),
+          frameCounts[i], missRatios[i], errors[i]));
+    }
+    return text.append(String.format("references=%d sampled=%d rate=%.4g", references,
+        sampledReferences, rate)).toString();
+  }
+}
@@ -0,0 +1,84 @@
+package simulation;
+
+
+/**
+ * The type Second chance algorithm.
+ * FIFO with a reference bit per frame. A page at the head of the queue whose
+ * bit is set gets a second chance: the bit is cleared and the page is queued
+ * again at the tail. This is the queue formulation of {@link CLOCK_Algorithm}
+ * and replaces the same pages, at the cost of requeueing instead of moving a
+ * hand.
+ */
+public class SecondChance_Algorithm implements ReplacementPolicy {
+  private final int[] queue;
+  private final int[] frames;
+  private final boolean[] referenced;
+  private int head = 0;
+  private int size = 0;
+
+  /**
+   * Instantiates a new Second chance algorithm.
+   *
+   * @param context the simulation
+   */
+  public SecondChance_Algorithm(PolicyContext context) {
+    int memoryCapacity = context.getMemoryCapacity();
+    queue = new int[memoryCapacity];
+    frames = new int[memoryCapacity];
+    referenced = new boolean[memoryCapacity];
+  }
+
+  @Override
+  public void onHit(int page, int frame) {
+    referenced[frame] = true;
+  }
+
+  @Override
+  public void onMiss(int page, int frame) {
+    frames[frame] = page;
+    referenced[frame] = true;
+    queue[(head + size++) % queue.length] = frame;
+  }
+
+  /**
+   * the victim is the oldest page not referenced since it was last queued
+   */
+  @Override
+  public int selectVictim() {
+    while (referenced[queue[head]]) {
+      int frame = queue[head];
+      referenced[frame] = false;
+      queue[(head + size) % queue.length] = frame;
+      head = (head + 1) % queue.length;
+    }
+    return frames[queue[head]];
+  }
+
+  @Override
+  public void onEvict(int victim, int frame) {
+    head = (head + 1) % queue.length;
+    size--;
+  }
+
+  /**
+   * Method to add algorithms unique text to default intro text.
+   * @return String of algorithms unique intro text.
+   */
+  @Override
+  public String intro() {
+    return "In the Second-Chance page-replacement algorithm, the oldest frame is the victim"
+        + " unless its page was referenced,\nin which case its reference bit is cleared and it"
+        + " is moved to the back of the queue.\n";
+  }
+
+  /**
+   * Method to add algorithms unique text to default text when page miss occurs.
+   * @param victim the victim page id
+   * @return String of algorithms unique missed page text.
+   */
+  @Override
+  public String missText(int victim) {
+    return "which was the oldest page that had already used its second chance.";
+  }
+
+}
@@ -0,0 +1,65 @@
+package simulation;
+
+/**
+ * The type Sequential prefetcher.
+ * Adaptive read-ahead for sequential streams. A reference to the page after
+ * the previous one starts or continues a stream; once fewer than half a
+ * window of pages are left read ahead of it, the next window is read. The
+ * window doubles with every useful prefetch, up to its maximum, and halves
+ * with every wasted one, so long streams read far ahead and short or
+ * broken ones waste little.
+ */
+public class SequentialPrefetcher implements Prefetcher {
+  private static final int INITIAL_WINDOW = 4;
+
+  private final int maxWindow;
+  private int window;
+  private long last = Long.MIN_VALUE;
+  private long ahead = Long.MIN_VALUE;
+
+  /**
+   * Instantiates a new Sequential prefetcher.
+   *
+   * @param maxWindow the most pages read ahead at once
+   */
+  public SequentialPrefetcher(int maxWindow) {
+    if (maxWindow <= 0) {
+      throw new IllegalArgumentException("Read-ahead window must be positive");
+    }
+    this.maxWindow = maxWindow;
+    this.window = Math.min(INITIAL_WINDOW, maxWindow);
+  }
+
+  @Override
+  public int getDegree() {return maxWindow;}
+
+  @Override
+  public int predict(long page, boolean fault, long[] pages) {
+    boolean sequential = page == last + 1;
+    last = page;
+    if (!sequential) {
+      ahead = page;
+      return 0;
+    }
+    if (ahead < page) {
+      ahead = page;
+    }
+    if (ahead - page > window / 2) {
+      return 0;
+    }
+    for (int i = 0; i < window; i++) {
+      pages[i] = ++ahead;
+    }
+    return window;
+  }
+
+  @Override
+  public void onUseful(long page) {
+    window = Math.min(window * 2, maxWindow);
+  }
+
+  @Override
+  public void onWasted(long page) {
+    window = Math.max(1, window / 2);
+  }
+}
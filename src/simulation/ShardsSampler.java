@@ -0,0 +1,288 @@
+package simulation;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import trace.TraceReader;
+
+/**
+ * The type Shards sampler.
+ * Estimates miss ratio curves from a spatially hashed sample of the pages,
+ * after SHARDS (Waldspurger et al., FAST '15). A page is sampled when its
+ * hash falls below a threshold, so every reference to a sampled page is kept
+ * and reuse patterns survive sampling.
+ * <p>
+ * LRU is estimated from sampled stack distances scaled by the rate, giving
+ * every frame count in one pass. Any other algorithm is estimated by
+ * miniature simulations: the sample is run with the frame counts scaled down
+ * by the rate. The sample is split by hash into independent subsamples whose
+ * spread gives the standard error of each point.
+ */
+public final class ShardsSampler {
+  private static final double MODULUS = 0x1p32;
+  private static final int SUBSAMPLES = 8;
+
+  private final double rate;
+  private final int maxPages;
+
+  private ShardsSampler(double rate, int maxPages) {
+    this.rate = rate;
+    this.maxPages = maxPages;
+  }
+
+  /**
+   * Creates a sampler keeping a fixed fraction of the pages.
+   *
+   * @param rate the fraction of pages to sample, in (0, 1]
+   * @return the sampler
+   */
+  public static ShardsSampler fixedRate(double rate) {
+    if (!(rate > 0 && rate <= 1)) {
+      throw new IllegalArgumentException("Sampling rate must be in (0, 1]");
+    }
+    return new ShardsSampler(rate, 0);
+  }
+
+  /**
+   * Creates a sampler keeping at most a fixed number of pages, lowering the
+   * rate as new pages arrive. Only supported for LRU.
+   *
+   * @param maxPages the most pages to sample
+   * @return the sampler
+   */
+  public static ShardsSampler fixedSize(int maxPages) {
+    if (maxPages <= 0) {
+      throw new IllegalArgumentException("Sample size must be positive");
+    }
+    return new ShardsSampler(1, maxPages);
+  }
+
+  /**
+   * Estimates the miss ratio curve of an in-memory trace.
+   *
+   * @param policy the replacement algorithm
+   * @param frameCounts the frame counts to estimate
+   * @param referenceTrace the reference trace
+   * @return the curve
+   */
+  public SampledCurve estimate(ReplacementPolicyProvider policy, int[] frameCounts,
+      ReferenceTrace referenceTrace) {
+    try {
+      return estimate(policy, frameCounts, new TraceReader() {
+        private int idx = 0;
+
+        @Override
+        public long next() {
+          return idx < referenceTrace.size() ? referenceTrace.get(idx++) : END;
+        }
+
+        @Override
+        public void close() {}
+      });
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Estimates the miss ratio curve of a trace in one streaming pass.
+   *
+   * @param policy the replacement algorithm
+   * @param frameCounts the frame counts to estimate
+   * @param reader the trace, read to the end but not closed
+   * @return the curve
+   * @throws IOException if the trace cannot be read
+   */
+  public SampledCurve estimate(ReplacementPolicyProvider policy, int[] frameCounts,
+      TraceReader reader) throws IOException {
+    if (policy == Algorithm.LRU) {
+      return stackDistances(frameCounts, reader);
+    }
+    if (maxPages > 0) {
+      throw new IllegalArgumentException("A fixed sample size is only supported for LRU");
+    }
+    return miniatureSimulations(policy, frameCounts, reader);
+  }
+
+  /**
+   * Samples stack distances. A sampled reference at distance d with rate R
+   * stands for 1/R references at distance d/R. For a fixed rate the total
+   * weight is corrected to the true number of references (SHARDS-adj).
+   */
+  private SampledCurve stackDistances(int[] frameCounts, TraceReader reader)
+      throws IOException {
+    int[] frames = frameCounts.clone();
+    Arrays.sort(frames);
+    StackDistanceAnalyzer sample = new StackDistanceAnalyzer();
+    StackDistanceAnalyzer[] subsamples = new StackDistanceAnalyzer[SUBSAMPLES];
+    double[][] misses = new double[SUBSAMPLES + 1][frames.length + 1];
+    double[] weights = new double[SUBSAMPLES + 1];
+    for (int i = 0; i < SUBSAMPLES; i++) {
+      subsamples[i] = new StackDistanceAnalyzer();
+    }
+    FrameHeap largest = maxPages > 0 ? new FrameHeap(maxPages + 1) : null;
+    long[] slotPages = new long[maxPages + 1];
+    int[] freeSlots = new int[maxPages + 1];
+    int free = 0;
+    for (int slot = maxPages; slot >= 0; slot--) {
+      freeSlots[free++] = slot;
+    }
+    double threshold = Math.rint(rate * MODULUS);
+    long references = 0;
+    long sampled = 0;
+    for (long page = reader.next(); page != TraceReader.END; page = reader.next()) {
+      references++;
+      long hash = hash(page);
+      long value = hash >>> 32;
+      if (value >= threshold) {
+        continue;
+      }
+      sampled++;
+      double sampleRate = threshold / MODULUS;
+      int subsample = (int) (hash & (SUBSAMPLES - 1));
+      int distance = sample.distance(page);
+      record(misses[SUBSAMPLES], weights, SUBSAMPLES, frames, distance, sampleRate);
+      record(misses[subsample], weights, subsample, frames, subsamples[subsample].distance(page),
+          sampleRate / SUBSAMPLES);
+      if (largest != null && distance == 0) {
+        int slot = freeSlots[--free];
+        slotPages[slot] = page;
+        largest.set(slot, -value);
+        if (free == 0) {
+          threshold = -largest.key(largest.peek());
+          while (!largest.isEmpty() && -largest.key(largest.peek()) >= threshold) {
+            int evicted = largest.peek();
+            largest.remove(evicted);
+            freeSlots[free++] = evicted;
+            sample.forget(slotPages[evicted]);
+            subsamples[(int) (hash(slotPages[evicted]) & (SUBSAMPLES - 1))]
+                .forget(slotPages[evicted]);
+          }
+        }
+      }
+    }
+    if (maxPages == 0) {
+      Arrays.fill(weights, references);
+    }
+    double[] estimates = new double[SUBSAMPLES + 1];
+    double[] missRatios = new double[frameCounts.length];
+    double[] errors = new double[frameCounts.length];
+    for (int point = 0; point < frameCounts.length; point++) {
+      int k = Arrays.binarySearch(frames, frameCounts[point]);
+      for (int i = 0; i <= SUBSAMPLES; i++) {
+        double missed = 0;
+        for (int j = k + 1; j <= frames.length; j++) {
+          missed += misses[i][j];
+        }
+        estimates[i] = weights[i] == 0 ? Double.NaN : missed / weights[i];
+      }
+      missRatios[point] = Double.isNaN(estimates[SUBSAMPLES]) ? 0 : estimates[SUBSAMPLES];
+      errors[point] = standardError(Arrays.copyOf(estimates, SUBSAMPLES));
+    }
+    return new SampledCurve(Algorithm.LRU, threshold / MODULUS, references, sampled,
+        frameCounts.clone(), missRatios, errors);
+  }
+
+  /**
+   * Adds a sampled reference with weight 1/rate to the first bucket of frame
+   * counts it misses in. Bucket k holds misses of every frame count below
+   * frames[k]; first references miss in all of them.
+   */
+  private static void record(double[] misses, double[] weights, int sample, int[] frames,
+      int distance, double rate) {
+    double weight = 1 / rate;
+    weights[sample] += weight;
+    if (distance == 0) {
+      misses[frames.length] += weight;
+      return;
+    }
+    int low = 0;
+    int high = frames.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (frames[mid] * rate < distance) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    misses[low] += weight;
+  }
+
+  /**
+   * Collects the sample in memory and simulates it with scaled down frame
+   * counts, in parallel through a {@link Sweep}. Faults are divided by the
+   * expected rather than the actual sample size (SHARDS-adj), so a sample
+   * that happens to miss hot pages is not mistaken for a cold trace.
+   */
+  private SampledCurve miniatureSimulations(ReplacementPolicyProvider policy, int[] frameCounts,
+      TraceReader reader) throws IOException {
+    double threshold = Math.rint(rate * MODULUS);
+    double sampleRate = threshold / MODULUS;
+    ReferenceTrace.Builder sample = new ReferenceTrace.Builder();
+    ReferenceTrace.Builder[] subsamples = new ReferenceTrace.Builder[SUBSAMPLES];
+    for (int i = 0; i < SUBSAMPLES; i++) {
+      subsamples[i] = new ReferenceTrace.Builder();
+    }
+    long references = 0;
+    for (long page = reader.next(); page != TraceReader.END; page = reader.next()) {
+      references++;
+      long hash = hash(page);
+      if ((hash >>> 32) < threshold) {
+        sample.add(page);
+        subsamples[(int) (hash & (SUBSAMPLES - 1))].add(page);
+      }
+    }
+    List<ReplacementPolicyProvider> policies = Collections.singletonList(policy);
+    double[][] estimates = new double[frameCounts.length][SUBSAMPLES + 1];
+    for (int i = 0; i <= SUBSAMPLES; i++) {
+      ReferenceTrace trace = (i == SUBSAMPLES ? sample : subsamples[i]).build();
+      double scale = i == SUBSAMPLES ? sampleRate : sampleRate / SUBSAMPLES;
+      int[] scaled = Arrays.stream(frameCounts)
+          .map(frames -> (int) Math.max(1, Math.round(frames * scale))).toArray();
+      List<Sweep.Cell> cells = Sweep.run(trace, policies, scaled);
+      double expected = references * scale;
+      for (int point = 0; point < frameCounts.length; point++) {
+        SimulationResult result = cells.get(point).getResult();
+        estimates[point][i] = expected == 0 ? Double.NaN : result.getPageFaults() / expected;
+      }
+    }
+    double[] missRatios = new double[frameCounts.length];
+    double[] errors = new double[frameCounts.length];
+    for (int point = 0; point < frameCounts.length; point++) {
+      double estimate = estimates[point][SUBSAMPLES];
+      missRatios[point] = Double.isNaN(estimate) ? 0 : estimate;
+      errors[point] = standardError(Arrays.copyOf(estimates[point], SUBSAMPLES));
+    }
+    return new SampledCurve(policy, sampleRate, references, sample.size(), frameCounts.clone(),
+        missRatios, errors);
+  }
+
+  /**
+   * Gets the standard error of the mean of independent estimates, skipping
+   * empty subsamples.
+   *
+   * @return the standard error, NaN with fewer than two estimates
+   */
+  private static double standardError(double[] estimates) {
+    double[] known = Arrays.stream(estimates).filter(e -> !Double.isNaN(e)).toArray();
+    if (known.length < 2) {
+      return Double.NaN;
+    }
+    double mean = Arrays.stream(known).average().getAsDouble();
+    double squares = Arrays.stream(known).map(e -> (e - mean) * (e - mean)).sum();
+    return Math.sqrt(squares / (known.length - 1) / known.length);
+  }
+
+  /**
+   * Mixes a page number (SplitMix64 finalizer). The high 32 bits decide
+   * sampling, the low bits the subsample.
+   */
+  private static long hash(long pageNumber) {
+    long z = pageNumber + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -1,352 +1,500 @@
 package simulation;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.IntStream;
-import allocationtable.AllocationTable;
+import trace.TraceReader;
 
 /**
  * The type Simulation.
+ * Runs the page replacement without any console I/O; narration of each step
+ * is delegated to an optional {@link SimulationListener}. A simulation is run
+ * once, either over an in-memory {@link ReferenceTrace} or over a
+ * {@link TraceReader} streaming references from disk. Which page to evict
+ * is decided by a {@link ReplacementPolicy}. Frames are an array and the
+ * frame of every page is indexed by its dense id, so finding whether and
+ * where a page is resident takes constant time for any number of frames.
+ * Every frame has a dirty bit, set by writes; evicting a dirty page costs a
+ * write-back to swap, and faulting a page in again costs a read from swap.
+ * An optional {@link Prefetcher} loads predicted pages ahead of demand.
  */
-public abstract class Simulation {
-  private final List<Page> referenceList = new LinkedList<>();
-  private List<Page> allocatedPages = new LinkedList<>();
+public class Simulation implements PolicyContext {
+  /**
+   * Frame of a page that is not allocated.
+   */
+  public static final int NOT_RESIDENT = -1;
+  private static final int NEVER_LOADED = -2;
+
+  private final PageTable pageTable = new PageTable();
+  private ReferenceTrace referenceTrace;
+  private final Page[] frames;
+  private final boolean[] dirty;
+  private final boolean[] prefetched;
+  private int allocatedFrames = 0;
+  private int[] frameOf = new int[16];
   private final int memoryCapacity;
-  private int pageFaults = 0;
-  private String result = "";
-  private AllocationTable allocationTable;
+  private final ReplacementPolicyProvider provider;
+  private final ReplacementPolicy policy;
+  private long pageFaults = 0;
+  private long writes = 0;
+  private long writeBacks = 0;
+  private long swapIns = 0;
+  private boolean write = false;
+  private boolean victimDirty = false;
+  private long[] victims = new long[16];
+  private int victimCount = 0;
+  private boolean recordVictims = true;
+  private Lookahead lookahead;
+  private long nextUse = Lookahead.NEVER;
+  private SimulationListener listener = SimulationListener.NONE;
+  private Prefetcher prefetcher;
+  private long[] predictions;
+  private int[] batch;
+  private boolean prefetching = false;
+  private long prefetches = 0;
+  private long usefulPrefetches = 0;
+  private long wastedPrefetches = 0;
 
   /**
    * The Current idx.
-   * used to determine column to set in allocation table
+   * index of the reference currently being processed
    */
-  int currentIdx = 0;
+  long currentIdx = 0;
 
 
   /**
    * Instantiates a new Simulation.
    *
    * @param memoryCapacity the memory capacity
-   * @param referenceString the reference string
+   * @param provider the replacement policy
    */
-  public Simulation(int memoryCapacity, List<String> referenceString) {
+  public Simulation(int memoryCapacity, ReplacementPolicyProvider provider) {
+    if (memoryCapacity <= 0) {
+      throw new IllegalArgumentException("Memory capacity must be positive");
+    }
     this.memoryCapacity = memoryCapacity;
-    setReferenceList(referenceString);
-    allocationTable = new AllocationTable(memoryCapacity,referenceList);
-    runSimulation();
+    this.frames = new Page[memoryCapacity];
+    this.dirty = new boolean[memoryCapacity];
+    this.prefetched = new boolean[memoryCapacity];
+    Arrays.fill(frameOf, NEVER_LOADED);
+    this.provider = provider;
+    this.policy = provider.create(this);
   }
 
   /**
-   * Sets victim priorities using algorithm.
+   * Sets the listener notified of each simulation step.
+   *
+   * @param listener the listener, {@link SimulationListener#NONE} for a headless run
    */
-  protected abstract void setVictimPriorities();
+  public void setListener(SimulationListener listener) {
+    this.listener = listener == null ? SimulationListener.NONE : listener;
+  }
 
   /**
-   * Algo specific intro string.
+   * Sets whether the victim sequence is kept for the result. Disable for
+   * streamed traces to keep memory independent of the trace length.
    *
-   * @return the string
+   * @param recordVictims true to record victims, the default
    */
-  protected abstract String algoSpecificIntro();
+  public void setRecordVictims(boolean recordVictims) {
+    this.recordVictims = recordVictims;
+  }
 
   /**
-   * Algo miss text string.
+   * Sets the lookahead supplying the next use of every reference, required
+   * by algorithms that see the future when run over a stream.
    *
-   * @param victim the victim
-   * @return the string
+   * @param lookahead the lookahead, positioned at the first reference
    */
-  protected abstract String algoMissText(Page victim);
+  public void setLookahead(Lookahead lookahead) {
+    this.lookahead = lookahead;
+  }
 
   /**
-   * Run simulation.
+   * Sets the prefetcher loading pages ahead of demand.
+   *
+   * @param prefetcher the prefetcher, null for pure demand paging
+   * @throws IllegalArgumentException if the algorithm needs lookahead, which
+   *     prefetched pages do not have
    */
-  public void runSimulation() {
-    initSim();
-    for (Page pageToAllocate : referenceList) {
-
-      if (isAlreadyAllocated(pageToAllocate)) {
-        pageHitOccurred(pageToAllocate);
-
-      } else {
-        pageMissOccurred();
-
-        if (!isUnallocatedFramesAvailable()) {
-          allocatePage(pageToAllocate);
-        } else {
-          allocatePage(pageToAllocate,getVictim());
-
-        }
-      }
-      updateSimulation();
+  public void setPrefetcher(Prefetcher prefetcher) {
+    if (prefetcher != null && provider.requiresLookahead()) {
+      throw new IllegalArgumentException(
+          provider.displayName() + " cannot be combined with prefetching");
     }
-    ShowSummary();
+    this.prefetcher = prefetcher;
+    predictions = prefetcher == null ? null : new long[prefetcher.getDegree()];
+    batch = prefetcher == null ? null : new int[prefetcher.getDegree()];
   }
 
   /**
-   * Prints the result of the simulation, page fault total
+   * Runs the simulation over an in-memory trace.
+   *
+   * @param referenceTrace the reference trace
+   * @return the result of the simulation
    */
-  private void ShowSummary() {
-    allocationTable.printAllocationTable();
-    System.out.printf("End the end, a total of %d page faults were generated\n",pageFaults);
-    promptToContinue();
+  public SimulationResult runSimulation(ReferenceTrace referenceTrace) {
+    this.referenceTrace = referenceTrace;
+    if (provider.requiresLookahead() && lookahead == null) {
+      lookahead = Lookahead.of(referenceTrace);
+    }
+    listener.simulationStarted(this);
+    for (int i = 0; i < referenceTrace.size(); i++) {
+      reference(referenceTrace.get(i), referenceTrace.isWrite(i));
+    }
+    return finish();
   }
 
   /**
-   * Method displayed at simulation start introducing algorithm
-   * and displaying initial allocation table
+   * Runs the simulation over a stream of references in a single pass.
+   * Memory use depends on the number of distinct pages, not the trace length,
+   * as long as victims are not recorded.
+   *
+   * @param reader the reader, not closed by this method
+   * @return the result of the simulation
+   * @throws IOException if the trace cannot be read
    */
-  private void initSim() {
-    allocationTable.printAllocationTable();
-    System.out.println(introText(memoryCapacity,referenceList));
-    promptToContinue();
+  public SimulationResult runSimulation(TraceReader reader) throws IOException {
+    if (provider.requiresLookahead() && lookahead == null) {
+      throw new IllegalStateException("A lookahead is required to stream this algorithm");
+    }
+    listener.simulationStarted(this);
+    for (long page = reader.next(); page != TraceReader.END; page = reader.next()) {
+      reference(page, reader.isWrite());
+    }
+    return finish();
   }
 
   /**
-   * Adds test description of simulations step
-   * @param page that was hit
+   * Processes a single reference.
+   * @param pageNumber the referenced page number
+   * @param write true if the reference writes the page
    */
-  private void pageHitOccurred(Page page) {
-    result += pageHitText(page);
+  private void reference(long pageNumber, boolean write) {
+    this.write = write;
+    if (write) {
+      writes++;
+    }
+    Page pageToAllocate = pageTable.intern(pageNumber);
+    if (lookahead != null) {
+      nextUse = lookahead.next();
+    }
+    int id = pageToAllocate.getId();
+    ensureFrameOf(id);
+    int frame = frameOf[id];
+
+    if (frame >= 0) {
+      dirty[frame] |= write;
+      if (prefetched[frame]) {
+        prefetched[frame] = false;
+        usefulPrefetches++;
+        prefetcher.onUseful(pageNumber);
+      }
+      policy.onHit(id, frame);
+      listener.pageHit(this, pageToAllocate);
+
+    } else {
+      pageFaults++;
+      policy.onFault(id);
+
+      if (!isUnallocatedFramesAvailable()) {
+        allocatePage(pageToAllocate);
+      } else {
+        allocatePage(pageToAllocate, pageTable.get(policy.selectVictim()));
+
+      }
     }
+    if (prefetcher != null) {
+      prefetch(pageToAllocate, frame < 0);
+    }
+    currentIdx++;
+  }
+
+  private void ensureFrameOf(int id) {
+    if (id >= frameOf.length) {
+      int length = frameOf.length;
+      frameOf = Arrays.copyOf(frameOf, Math.max(id + 1, length * 2));
+      Arrays.fill(frameOf, length, frameOf.length, NEVER_LOADED);
+    }
+  }
 
   /**
-   * increments fault total and places an F in the table
+   * Loads the pages the prefetcher predicts after a reference, skipping
+   * those already resident. Loads go through the policy like faults but are
+   * not counted as faults, and prefetched pages are never dirty.
+   * <p>
+   * The referenced page and the pages loaded by the same batch are pinned:
+   * once the policy picks one of them as the victim, the rest of the batch
+   * is dropped, since a policy that favours evicting new pages would
+   * otherwise read ahead over the very page just demanded.
+   * @param demanded the referenced page
+   * @param fault true if the reference was a page fault
    */
-  private void pageMissOccurred() {
-    pageFaults++;
-    allocationTable.addFault(currentIdx);
+  private void prefetch(Page demanded, boolean fault) {
+    int count = prefetcher.predict(demanded.getNumber(), fault, predictions);
+    write = false;
+    prefetching = true;
+    int loaded = 0;
+    for (int i = 0; i < count; i++) {
+      if (predictions[i] < 0) {
+        continue;
+      }
+      Page page = pageTable.intern(predictions[i]);
+      ensureFrameOf(page.getId());
+      if (frameOf[page.getId()] >= 0) {
+        continue;
+      }
+      policy.onFault(page.getId());
+      if (!isUnallocatedFramesAvailable()) {
+        allocatePage(page);
+      } else {
+        int victim = policy.selectVictim();
+        if (isPinned(victim, demanded.getId(), loaded)) {
+          // the policy heard of a fault that is never loaded, as for a page skipped
+          break;
+        }
+        allocatePage(page, pageTable.get(victim));
+      }
+      prefetches++;
+      batch[loaded++] = page.getId();
+    }
+    prefetching = false;
   }
 
   /**
-   * Helper method to check if current page is allocated already
-   * @param pageToAllocate page to check if allocated
-   * @return true if already allocated
+   * Tells whether a page may not be evicted by the current prefetch batch.
+   * @param page the page id
+   * @param demanded the id of the page just referenced
+   * @param loaded the number of pages loaded by the batch so far
+   * @return true for the referenced page or a page of the batch
    */
-  private boolean isAlreadyAllocated(Page pageToAllocate) {
-    return  allocatedPages.contains(pageToAllocate);
+  private boolean isPinned(int page, int demanded, int loaded) {
+    if (page == demanded) {
+      return true;
+    }
+    for (int i = 0; i < loaded; i++) {
+      if (batch[i] == page) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private SimulationResult finish() {
+    SimulationResult result =
+        new SimulationResult(memoryCapacity, currentIdx, pageFaults,
+            Arrays.copyOf(victims, victimCount), writes, swapIns, writeBacks, prefetches,
+            usefulPrefetches, wastedPrefetches);
+    listener.simulationFinished(this, result);
+    return result;
   }
 
   private boolean isUnallocatedFramesAvailable() {
-    return allocatedPages.size() == memoryCapacity;
+    return allocatedFrames == memoryCapacity;
   }
 
   /**
-   * Gets the victim to be replaced
-   * @return
+   * Get allocated pages list.
+   *
+   * @return a read-only view of the allocated frames, in frame order
    */
-  private Page getVictim() {
-    setVictimPriorities();
-    Page victim = getAllocatedPages().stream()
-        .reduce((x, y) -> x.getReplacementPriority() <= y.getReplacementPriority() ? x : y)
-        .get();
-    victim.setReplacementPriority(0);
-    return victim;
+  public List<Page> getAllocatedPages() {
+    return Collections.unmodifiableList(Arrays.asList(frames).subList(0, allocatedFrames));
   }
 
   /**
-   * Get allocated pages list.
+   * Gets the frame holding a page.
    *
-   * @return the list
+   * @param page the page
+   * @return the frame, {@link #NOT_RESIDENT} if the page is not allocated
    */
-  public List<Page> getAllocatedPages(){return allocatedPages;}
+  public int getFrame(Page page) {
+    return page.getId() < frameOf.length ? Math.max(frameOf[page.getId()], NOT_RESIDENT)
+        : NOT_RESIDENT;
+  }
 
   /**
-   * Gets reference list.
+   * Gets reference trace.
    *
-   * @return the reference list
+   * @return the reference trace, null when running over a stream
    */
-  public List<Page> getReferenceList() {return referenceList;}
+  public ReferenceTrace getReferenceTrace() {return referenceTrace;}
 
   /**
-   * Sets reference string list
-   * @param referenceString
+   * Gets the number of distinct pages referenced so far.
+   * Page ids are numbered densely from 0 to this count - 1.
+   *
+   * @return the page count
    */
-  private void setReferenceList(List<String> referenceString) {
-    IntStream.range(0, referenceString.size())
-        .forEach(i -> getReferenceList().add(Page.createPage(referenceString.get(i))));
-  }
+  public int getPageCount() {return pageTable.size();}
 
   /**
-   * Allocates the inputed page and assigns page miss text to
-   * result
-   * @param pageToAllocate
+   * Gets memory capacity.
+   *
+   * @return the number of physical frames
    */
-  private void allocatePage(Page pageToAllocate) {
-    allocatedPages.add(pageToAllocate);
-    result += pageMissTextNoVictim(pageToAllocate);
-
-  }
+  @Override
+  public int getMemoryCapacity() {return memoryCapacity;}
 
   /**
-   * Overloaded method to Allocate/replace the inputed page with victim
-   * and assigns page miss w/victim text to result
-   * @param pageToAllocate
-   * @param victim
+   * Gets the index of the reference currently being processed.
+   *
+   * @return the current index
    */
-  private void allocatePage(Page pageToAllocate, Page victim) {
-    allocatedPages.set(allocatedPages.indexOf(victim),pageToAllocate);
-    allocationTable.addVictimToTable(currentIdx,victim.value);
-    result += pageMissTextWithVictim(pageToAllocate,victim);
+  @Override
+  public long getCurrentIdx() {return currentIdx;}
+
+  @Override
+  public long nextUse() {return nextUse;}
+
+  @Override
+  public long getPageNumber(int page) {return pageTable.get(page).getNumber();}
+
+  @Override
+  public boolean isDirty(int page) {
+    return page < frameOf.length && frameOf[page] >= 0 && dirty[frameOf[page]];
   }
 
   /**
-   * Helper method to prepare simulation for the next step.
-   * prints allocation table and
-   * displays results of current step.
+   * Tells whether the victim of the page fault being reported to the
+   * listener was dirty, and so was written back before its frame was reused.
+   *
+   * @return true after a write-back
    */
-  private void updateSimulation() {
-    currentIdx++;
-
-    allocationTable.setColumn(currentIdx,allocatedPages);
-    allocationTable.printAllocationTable();
-    System.out.println(result);
-    result="";
-    promptToContinue();
-  }
+  public boolean isVictimDirty() {return victimDirty;}
 
   /**
-   * Helper method to prompt user to continue
+   * Gets the replacement policy of this run.
+   *
+   * @return the policy
    */
-  private void promptToContinue() {
-    try {
-      System.out.print("Press Enter to Continue.");
-      System.in.read();
-    } catch (IOException e) {
-      e.printStackTrace();
-    }
-  }
+  public ReplacementPolicy getPolicy() {return policy;}
 
   /**
-   * Method to create intro text with specif algo text added.
-   * @param memoryCapacity
-   * @param referenceList
-   * @return intro text string
+   * Gets the provider of the replacement policy.
+   *
+   * @return the provider
    */
-  private String introText(int memoryCapacity, List<Page> referenceList) {
-    return String.format("%sThis simulation assumes a hypothetical computer having %d physical frames "
-        + "numbered 0 to %d. It assumes that a single process that is running has a "
-        + "virtual memory of %d frames.\nThe reference string is %s"
-        ,algoSpecificIntro()
-        ,memoryCapacity,memoryCapacity-1
-        , referenceList.stream().distinct().count()
-        , Arrays.toString(referenceList.toArray()));
-  }
+  public ReplacementPolicyProvider getProvider() {return provider;}
 
   /**
-   * Method to create page hit text
-   * @param pageToAllocate
-   * @return page hit text string
+   * Gets the prefetcher loading pages ahead of demand.
+   *
+   * @return the prefetcher, null for pure demand paging
    */
-  private String pageHitText(Page pageToAllocate) {
-    return String.format(
-        "Virtual frame %s is referenced.\nBecause virtual frame %s is already present in "
-            + "physical memory, in physical frame %d, nothing else needs to be done.\n"
-            + "No page fault is generated.\nWe have no victim frame"
-        ,pageToAllocate.getValue()
-        ,pageToAllocate.getValue()
-        ,allocatedPages.indexOf(pageToAllocate));
-  }
+  public Prefetcher getPrefetcher() {return prefetcher;}
 
   /**
-   * Method to create page miss text with no victim
+   * Allocates the inputed page into a free frame
    * @param pageToAllocate
-   * @return page miss text string
    */
-  private String pageMissTextNoVictim(Page pageToAllocate) {
-    return String.format(
-        "Virtual frame %s is referenced.\nBecause virtual frame %s is not present in physical"
-            + " memory, a page fault is generated.\nVirtual frame %s is loaded into physical "
-            + "frame %d.\nBecause there was room in physical memory, we have no victim frame."
-        ,pageToAllocate.getValue()
-        ,pageToAllocate.getValue()
-        ,pageToAllocate.getValue()
-        ,allocatedPages.indexOf(pageToAllocate));
+  private void allocatePage(Page pageToAllocate) {
+    int frame = allocatedFrames++;
+    frames[frame] = pageToAllocate;
+    if (frameOf[pageToAllocate.getId()] == NOT_RESIDENT) {
+      swapIns++;
+    }
+    frameOf[pageToAllocate.getId()] = frame;
+    dirty[frame] = write;
+    prefetched[frame] = prefetching;
+    victimDirty = false;
+    policy.onMiss(pageToAllocate.getId(), frame);
+    if (prefetching) {
+      listener.pagePrefetched(this, pageToAllocate, null);
+    } else {
+      listener.pageFault(this, pageToAllocate, null);
+    }
   }
 
   /**
-   * Method to create page miss text with no victim and add
-   * algorithm specific text
+   * Overloaded method to Allocate/replace the inputed page with victim
    * @param pageToAllocate
    * @param victim
-   * @return page miss text with victim
    */
-  private String pageMissTextWithVictim(Page pageToAllocate, Page victim) {
-    return String.format("Virtual frame %s is referenced.\nBecause virtual frame %s is not present "
-            + "in physical memory, a page fault is generated.\nBecause there is no more room in "
-            + "the physical memory, a frame must be replaced.\nThe victim frame is virtual frame "
-            + "%s, %s \nVirtual frame %s is swapped out, and virtual frame %s is swapped in."
-        , pageToAllocate.getValue()
-        , pageToAllocate.getValue()
-        , victim.getValue()
-        , algoMissText(victim)
-        , victim.getValue()
-        , pageToAllocate.getValue());
+  private void allocatePage(Page pageToAllocate, Page victim) {
+    int frame = frameOf[victim.getId()];
+    frameOf[victim.getId()] = NOT_RESIDENT;
+    frames[frame] = pageToAllocate;
+    if (frameOf[pageToAllocate.getId()] == NOT_RESIDENT) {
+      swapIns++;
+    }
+    frameOf[pageToAllocate.getId()] = frame;
+    policy.onEvict(victim.getId(), frame);
+    victimDirty = dirty[frame];
+    if (victimDirty) {
+      writeBacks++;
+    }
+    dirty[frame] = write;
+    if (prefetched[frame]) {
+      wastedPrefetches++;
+      prefetcher.onWasted(victim.getNumber());
+    }
+    prefetched[frame] = prefetching;
+    policy.onMiss(pageToAllocate.getId(), frame);
+    if (recordVictims) {
+      if (victimCount == victims.length) {
+        victims = Arrays.copyOf(victims, victimCount * 2);
+      }
+      victims[victimCount++] = victim.getNumber();
+    }
+    if (prefetching) {
+      listener.pagePrefetched(this, pageToAllocate, victim);
+    } else {
+      listener.pageFault(this, pageToAllocate, victim);
+    }
   }
 
   /**
-   * The type Page. Used to represent pages in algorithm
+   * The type Page. Used to represent pages in algorithm.
+   * Pages are interned per simulation by a {@link PageTable}, so the same
+   * page number always maps to the same instance and dense id within one run.
    */
   public static class Page {
+    private final int id;
+    private final long number;
 
     /**
-     * The constant issued.
-     */
-    public static ArrayList<Page> issued = new ArrayList<>();
-    private final String value;
-    private int replacementPriority = 0;
-
-    private Page(String value) {
-      this.value = value;
-      issued.add(this);
-    }
-
-    /**
-     * Create page page.
+     * Instantiates a new Page.
      *
-     * @param value the value
-     * @return the page
+     * @param id the dense id
+     * @param number the page number
      */
-    public static Page createPage(String value) {
-      for (Page p : issued) {
-        if (p.value.equals(value)) {
-          return p;
-        }
-      }
-      return new Page(value);
+    Page(int id, long number) {
+      this.id = id;
+      this.number = number;
     }
 
     /**
-     * Gets value.
+     * Gets id.
      *
-     * @return the value
+     * @return the dense id, unique within the simulation
      */
-    public String getValue() {
-      return value;
+    public int getId() {
+      return id;
     }
 
     /**
-     * Sets replacement priority.
+     * Gets number.
      *
-     * @param replacementPriority the replacement priority
+     * @return the page number as it appears in the reference trace
      */
-    void setReplacementPriority(int replacementPriority) {
-      this.replacementPriority = replacementPriority;
+    public long getNumber() {
+      return number;
     }
 
     /**
-     * Gets replacement priority.
+     * Gets value.
      *
-     * @return the replacement priority
+     * @return the page number as text
      */
-    int getReplacementPriority() {
-      return replacementPriority;
+    public String getValue() {
+      return String.valueOf(number);
     }
 
     @Override
     public String toString() {
-      return value;
+      return getValue();
     }
   }
 
@@ -0,0 +1,118 @@
+package simulation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import trace.TraceFormat;
+import trace.TraceReader;
+
+/**
+ * The type Simulation engine.
+ * Non-interactive entry point for running page replacement simulations.
+ */
+public final class SimulationEngine {
+
+  private SimulationEngine() {}
+
+  /**
+   * Runs a simulation without any console output.
+   *
+   * @param policy the replacement algorithm
+   * @param memoryCapacity the memory capacity
+   * @param referenceTrace the reference trace
+   * @return the result
+   */
+  public static SimulationResult run(ReplacementPolicyProvider policy, int memoryCapacity,
+      ReferenceTrace referenceTrace) {
+    return run(policy, memoryCapacity, referenceTrace, SimulationListener.NONE);
+  }
+
+  /**
+   * Runs a simulation of a reference string without any console output.
+   *
+   * @param policy the replacement algorithm
+   * @param memoryCapacity the memory capacity
+   * @param referenceString the reference string, one page number per entry
+   * @return the result
+   */
+  public static SimulationResult run(ReplacementPolicyProvider policy, int memoryCapacity,
+      List<String> referenceString) {
+    return run(policy, memoryCapacity, ReferenceTrace.of(referenceString));
+  }
+
+  /**
+   * Runs a simulation, reporting every step to the listener.
+   *
+   * @param policy the replacement algorithm
+   * @param memoryCapacity the memory capacity
+   * @param referenceTrace the reference trace
+   * @param listener the listener to notify
+   * @return the result
+   */
+  public static SimulationResult run(ReplacementPolicyProvider policy, int memoryCapacity,
+      ReferenceTrace referenceTrace, SimulationListener listener) {
+    Simulation simulation = new Simulation(memoryCapacity, policy);
+    simulation.setListener(listener);
+    return simulation.runSimulation(referenceTrace);
+  }
+
+  /**
+   * Runs a simulation over a trace file without loading it into memory.
+   *
+   * @param policy the replacement algorithm
+   * @param memoryCapacity the memory capacity
+   * @param trace the trace file
+   * @param format the format of the trace file
+   * @return the result
+   * @throws IOException if the trace cannot be read or spilled
+   */
+  public static SimulationResult run(ReplacementPolicyProvider policy, int memoryCapacity,
+      Path trace, TraceFormat format) throws IOException {
+    try (TraceReader reader = format.open(trace)) {
+      return run(policy, memoryCapacity, reader);
+    }
+  }
+
+  /**
+   * Runs a simulation over a stream of references without loading it into
+   * memory. Algorithms without lookahead make a single pass over the stream.
+   * OPT first spills the trace and a next-use index to temporary files, see
+   * {@link StreamingLookahead}. Victims are not recorded.
+   *
+   * @param policy the replacement algorithm
+   * @param memoryCapacity the memory capacity
+   * @param reader the trace, read to the end but not closed
+   * @return the result
+   * @throws IOException if the trace cannot be read or spilled
+   */
+  public static SimulationResult run(ReplacementPolicyProvider policy, int memoryCapacity,
+      TraceReader reader) throws IOException {
+    return run(policy, memoryCapacity, reader, SimulationListener.NONE);
+  }
+
+  /**
+   * Runs a simulation over a stream of references, reporting every step to
+   * the listener, see {@link #run(ReplacementPolicyProvider, int, TraceReader)}.
+   *
+   * @param policy the replacement algorithm
+   * @param memoryCapacity the memory capacity
+   * @param reader the trace, read to the end but not closed
+   * @param listener the listener to notify
+   * @return the result
+   * @throws IOException if the trace cannot be read or spilled
+   */
+  public static SimulationResult run(ReplacementPolicyProvider policy, int memoryCapacity,
+      TraceReader reader, SimulationListener listener) throws IOException {
+    Simulation simulation = new Simulation(memoryCapacity, policy);
+    simulation.setRecordVictims(false);
+    simulation.setListener(listener);
+    if (!policy.requiresLookahead()) {
+      return simulation.runSimulation(reader);
+    }
+    try (StreamingLookahead lookahead = StreamingLookahead.spill(reader);
+        TraceReader spilled = lookahead.openTrace()) {
+      simulation.setLookahead(lookahead);
+      return simulation.runSimulation(spilled);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package simulation;
+
+import simulation.Simulation.Page;
+
+/**
+ * The interface Simulation listener.
+ * Receives a callback for every step of a simulation, used to narrate a run
+ * without putting any console I/O on the simulation's hot path.
+ */
+public interface SimulationListener {
+
+  /**
+   * Listener that ignores every event, used for headless runs.
+   */
+  SimulationListener NONE = new SimulationListener() {};
+
+  /**
+   * Called once before the first reference is processed.
+   *
+   * @param simulation the simulation
+   */
+  default void simulationStarted(Simulation simulation) {}
+
+  /**
+   * Called when the referenced page is already in physical memory.
+   *
+   * @param simulation the simulation
+   * @param page the referenced page
+   */
+  default void pageHit(Simulation simulation, Page page) {}
+
+  /**
+   * Called after a page fault has been resolved and the page is loaded.
+   *
+   * @param simulation the simulation
+   * @param page the referenced page
+   * @param victim the replaced page, or null if a free frame was used
+   */
+  default void pageFault(Simulation simulation, Page page, Page victim) {}
+
+  /**
+   * Called after a page predicted by the {@link Prefetcher} is loaded ahead
+   * of demand, which is not a reference.
+   *
+   * @param simulation the simulation
+   * @param page the prefetched page
+   * @param victim the replaced page, or null if a free frame was used
+   */
+  default void pagePrefetched(Simulation simulation, Page page, Page victim) {}
+
+  /**
+   * Called once after the last reference is processed.
+   *
+   * @param simulation the simulation
+   * @param result the result of the run
+   */
+  default void simulationFinished(Simulation simulation, SimulationResult result) {}
+
+}
@@ -0,0 +1,172 @@
+package simulation;
+
+/**
+ * The type Simulation result.
+ * Immutable summary of a finished simulation run.
+ */
+public class SimulationResult {
+  private final int memoryCapacity;
+  private final long references;
+  private final long pageFaults;
+  private final long[] victims;
+  private final long writes;
+  private final long swapIns;
+  private final long swapOuts;
+  private final long prefetches;
+  private final long usefulPrefetches;
+  private final long wastedPrefetches;
+
+  /**
+   * Instantiates a new Simulation result of a run without swap accounting.
+   *
+   * @param memoryCapacity the memory capacity
+   * @param references the number of references processed
+   * @param pageFaults the number of page faults
+   * @param victims the page numbers replaced, in order of replacement
+   */
+  SimulationResult(int memoryCapacity, long references, long pageFaults, long[] victims) {
+    this(memoryCapacity, references, pageFaults, victims, 0, 0, 0, 0, 0, 0);
+  }
+
+  /**
+   * Instantiates a new Simulation result.
+   *
+   * @param memoryCapacity the memory capacity
+   * @param references the number of references processed
+   * @param pageFaults the number of page faults
+   * @param victims the page numbers replaced, in order of replacement
+   * @param writes the number of references that wrote their page
+   * @param swapIns the loads of pages evicted before, read back from swap
+   * @param swapOuts the evictions of dirty pages, written back to swap
+   * @param prefetches the pages loaded ahead of demand
+   * @param usefulPrefetches the prefetched pages referenced before their eviction
+   * @param wastedPrefetches the prefetched pages evicted without a reference
+   */
+  SimulationResult(int memoryCapacity, long references, long pageFaults, long[] victims,
+      long writes, long swapIns, long swapOuts, long prefetches, long usefulPrefetches,
+      long wastedPrefetches) {
+    this.memoryCapacity = memoryCapacity;
+    this.references = references;
+    this.pageFaults = pageFaults;
+    this.victims = victims;
+    this.writes = writes;
+    this.swapIns = swapIns;
+    this.swapOuts = swapOuts;
+    this.prefetches = prefetches;
+    this.usefulPrefetches = usefulPrefetches;
+    this.wastedPrefetches = wastedPrefetches;
+  }
+
+  /**
+   * Gets memory capacity.
+   *
+   * @return the number of physical frames
+   */
+  public int getMemoryCapacity() {return memoryCapacity;}
+
+  /**
+   * Gets references.
+   *
+   * @return the number of references processed
+   */
+  public long getReferences() {return references;}
+
+  /**
+   * Gets page faults.
+   *
+   * @return the page faults
+   */
+  public long getPageFaults() {return pageFaults;}
+
+  /**
+   * Gets page hits.
+   *
+   * @return the page hits
+   */
+  public long getPageHits() {return references - pageFaults;}
+
+  /**
+   * Gets hit ratio.
+   *
+   * @return the hit ratio, 0 for an empty reference string
+   */
+  public double getHitRatio() {
+    return references == 0 ? 0 : (double) getPageHits() / references;
+  }
+
+  /**
+   * Gets victims.
+   *
+   * @return the page numbers replaced, in order of replacement, empty if not recorded
+   */
+  public long[] getVictims() {return victims.clone();}
+
+  /**
+   * Gets writes.
+   *
+   * @return the number of references that wrote their page
+   */
+  public long getWrites() {return writes;}
+
+  /**
+   * Gets swap ins.
+   *
+   * @return the loads of pages evicted before, read back from swap by page
+   *     faults and by prefetches alike; first touches are not counted
+   */
+  public long getSwapIns() {return swapIns;}
+
+  /**
+   * Gets swap outs.
+   *
+   * @return the evictions of dirty pages, written back to swap
+   */
+  public long getSwapOuts() {return swapOuts;}
+
+  /**
+   * Gets prefetches.
+   *
+   * @return the pages loaded ahead of demand
+   */
+  public long getPrefetches() {return prefetches;}
+
+  /**
+   * Gets useful prefetches.
+   *
+   * @return the prefetched pages referenced before their eviction, each a
+   *     page fault turned into a hit
+   */
+  public long getUsefulPrefetches() {return usefulPrefetches;}
+
+  /**
+   * Gets wasted prefetches.
+   *
+   * @return the prefetched pages evicted without a reference; the others
+   *     still resident at the end were neither
+   */
+  public long getWastedPrefetches() {return wastedPrefetches;}
+
+  /**
+   * Gets the swap traffic of the run.
+   *
+   * @param pageSize the page size in bytes
+   * @return the bytes read from and written to swap, prefetches included
+   */
+  public long getSwapBytes(long pageSize) {
+    return (swapIns + swapOuts) * pageSize;
+  }
+
+  @Override
+  public String toString() {
+    String text = String.format("frames=%d references=%d faults=%d hitRatio=%.4f"
+        ,memoryCapacity,references,pageFaults,getHitRatio());
+    text += writes > 0
+        ? String.format(" writes=%d swapIns=%d swapOuts=%d", writes, swapIns, swapOuts)
+        : String.format(" swapIns=%d", swapIns);
+    if (prefetches > 0) {
+      text += String.format(" prefetches=%d useful=%d wasted=%d", prefetches, usefulPrefetches,
+          wastedPrefetches);
+    }
+    return text;
+  }
+}
@@ -0,0 +1,177 @@
+package simulation;
+
+import java.io.IOException;
+import java.util.Arrays;
+import trace.TraceReader;
+
+/**
+ * The type Stack distance analyzer.
+ * Computes the LRU miss ratio curve for every frame count in a single pass
+ * (Mattson et al.). LRU is a stack algorithm: a reference hits in memory of
+ * c frames exactly when fewer than c distinct pages were referenced since the
+ * previous reference to the same page. That stack distance is counted with a
+ * Fenwick tree over the times of last access, one mark per resident page, so
+ * the pass costs O(log n) per reference. Times are compacted whenever the
+ * tree fills up, which bounds it by twice the number of distinct pages.
+ */
+public final class StackDistanceAnalyzer {
+  private static final int INITIAL_CAPACITY = 1 << 10;
+
+  private final PageTable pageTable = new PageTable();
+  private int[] lastAccess = new int[0];
+  private int[] tree = new int[INITIAL_CAPACITY + 1];
+  private int[] slotPages = new int[INITIAL_CAPACITY];
+  private int time = 0;
+  private int live = 0;
+  private long[] histogram = new long[16];
+  private long references = 0;
+  private long coldMisses = 0;
+
+  /**
+   * Analyzes an in-memory trace.
+   *
+   * @param referenceTrace the reference trace
+   * @return the LRU miss ratio curve
+   */
+  public static MissRatioCurve analyze(ReferenceTrace referenceTrace) {
+    StackDistanceAnalyzer analyzer = new StackDistanceAnalyzer();
+    for (int i = 0; i < referenceTrace.size(); i++) {
+      analyzer.reference(referenceTrace.get(i));
+    }
+    return analyzer.getCurve();
+  }
+
+  /**
+   * Analyzes a trace in one streaming pass.
+   *
+   * @param reader the trace, read to the end but not closed
+   * @return the LRU miss ratio curve
+   * @throws IOException if the trace cannot be read
+   */
+  public static MissRatioCurve analyze(TraceReader reader) throws IOException {
+    StackDistanceAnalyzer analyzer = new StackDistanceAnalyzer();
+    for (long page = reader.next(); page != TraceReader.END; page = reader.next()) {
+      analyzer.reference(page);
+    }
+    return analyzer.getCurve();
+  }
+
+  /**
+   * Processes the next reference.
+   *
+   * @param pageNumber the page number
+   */
+  public void reference(long pageNumber) {
+    int distance = distance(pageNumber);
+    if (distance == 0) {
+      coldMisses++;
+    } else {
+      if (distance >= histogram.length) {
+        histogram = Arrays.copyOf(histogram, Math.max(distance + 1, histogram.length * 2));
+      }
+      histogram[distance]++;
+    }
+  }
+
+  /**
+   * Moves a page to the top of the stack.
+   *
+   * @param pageNumber the page number
+   * @return the stack distance of the page, 0 if it was not on the stack
+   */
+  int distance(long pageNumber) {
+    references++;
+    int id = pageTable.intern(pageNumber).getId();
+    if (id >= lastAccess.length) {
+      int length = lastAccess.length;
+      lastAccess = Arrays.copyOf(lastAccess, Math.max(id + 1, length * 2));
+      Arrays.fill(lastAccess, length, lastAccess.length, -1);
+    }
+    if (time == slotPages.length) {
+      compact();
+    }
+    int last = lastAccess[id];
+    int distance = 0;
+    if (last < 0) {
+      live++;
+    } else {
+      distance = live - prefix(last) + 1;
+      add(last, -1);
+      slotPages[last] = -1;
+    }
+    add(time, 1);
+    slotPages[time] = id;
+    lastAccess[id] = time++;
+    return distance;
+  }
+
+  /**
+   * Removes a page from the stack, as if it had never been referenced.
+   *
+   * @param pageNumber the page number, on the stack
+   */
+  void forget(long pageNumber) {
+    int id = pageTable.intern(pageNumber).getId();
+    int last = lastAccess[id];
+    add(last, -1);
+    slotPages[last] = -1;
+    lastAccess[id] = -1;
+    live--;
+  }
+
+  /**
+   * Gets the curve of the references processed so far.
+   *
+   * @return the LRU miss ratio curve
+   */
+  public MissRatioCurve getCurve() {
+    return new MissRatioCurve(references, coldMisses, histogram);
+  }
+
+  /**
+   * Counts the marked times up to and including a time.
+   */
+  private int prefix(int slot) {
+    int sum = 0;
+    for (int i = slot + 1; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+  private void add(int slot, int delta) {
+    for (int i = slot + 1; i < tree.length; i += i & -i) {
+      tree[i] += delta;
+    }
+  }
+
+  /**
+   * Renumbers the times of the resident pages to 0..live-1, keeping their
+   * order, and rebuilds the tree with room for as many new references.
+   */
+  private void compact() {
+    int capacity = Math.max(INITIAL_CAPACITY, live * 2);
+    int[] pages = new int[capacity];
+    int next = 0;
+    for (int slot = 0; slot < time; slot++) {
+      int id = slotPages[slot];
+      if (id >= 0) {
+        pages[next] = id;
+        lastAccess[id] = next++;
+      }
+    }
+    Arrays.fill(pages, next, capacity, -1);
+    slotPages = pages;
+    time = next;
+    tree = new int[capacity + 1];
+    for (int i = 1; i <= capacity; i++) {
+      if (i <= next) {
+        tree[i]++;
+      }
+      int parent = i + (i & -i);
+      if (parent <= capacity) {
+        tree[parent] += tree[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package simulation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import trace.TraceReader;
+
+/**
+ * The type Streaming lookahead.
+ * Gives OPT its lookahead over a trace too large for memory, in two passes
+ * over temporary files. The trace is first spilled as 64-bit page numbers,
+ * with the sign bit marking writes, then read back in chunks from the end to
+ * write the next use of every reference as a 64-bit index. The simulation
+ * then streams both files forward. Memory use depends only on the number of
+ * distinct pages.
+ */
+final class StreamingLookahead implements Lookahead, Closeable {
+  /**
+   * References per chunk in the backward pass and the forward buffer.
+   */
+  static final int CHUNK = 1 << 16;
+
+  private static final long WRITE = Long.MIN_VALUE;
+
+  private final Path traceFile;
+  private final Path nextUseFile;
+  private final FileChannel nextUses;
+  private final ByteBuffer buffer =
+      ByteBuffer.allocateDirect(CHUNK * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+  private StreamingLookahead(Path traceFile, Path nextUseFile) throws IOException {
+    this.traceFile = traceFile;
+    this.nextUseFile = nextUseFile;
+    nextUses = FileChannel.open(nextUseFile, StandardOpenOption.READ);
+    buffer.flip();
+  }
+
+  /**
+   * Spills a trace and builds its next-use index.
+   *
+   * @param source the trace, read to the end but not closed
+   * @return the lookahead, positioned at the first reference
+   * @throws IOException if the trace cannot be read or the files written
+   */
+  static StreamingLookahead spill(TraceReader source) throws IOException {
+    Path traceFile = Files.createTempFile("trace", ".i64");
+    Path nextUseFile = Files.createTempFile("nextuse", ".i64");
+    try {
+      long references = writeTrace(source, traceFile);
+      writeNextUses(traceFile, nextUseFile, references);
+      return new StreamingLookahead(traceFile, nextUseFile);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(traceFile);
+      Files.deleteIfExists(nextUseFile);
+      throw e;
+    }
+  }
+
+  /**
+   * Opens the spilled trace, to be read alongside this lookahead.
+   *
+   * @return the reader
+   * @throws IOException if the spill file cannot be opened
+   */
+  TraceReader openTrace() throws IOException {
+    FileChannel channel = FileChannel.open(traceFile, StandardOpenOption.READ);
+    ByteBuffer in = ByteBuffer.allocateDirect(CHUNK * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    in.flip();
+    return new TraceReader() {
+      private boolean write;
+
+      @Override
+      public long next() throws IOException {
+        if (in.remaining() < Long.BYTES) {
+          in.compact();
+          while (in.position() < Long.BYTES) {
+            if (channel.read(in) < 0) {
+              if (in.position() == 0) {
+                return END;
+              }
+              throw new IOException("Spilled trace ends in the middle of a page number");
+            }
+          }
+          in.flip();
+        }
+        long page = in.getLong();
+        write = page < 0;
+        return page & ~WRITE;
+      }
+
+      @Override
+      public boolean isWrite() {
+        return write;
+      }
+
+      @Override
+      public void close() throws IOException {
+        channel.close();
+      }
+    };
+  }
+
+  @Override
+  public long next() {
+    if (!buffer.hasRemaining()) {
+      try {
+        buffer.clear();
+        while (buffer.position() == 0) {
+          if (nextUses.read(buffer) < 0) {
+            throw new IllegalStateException("Lookahead read past the end of the trace");
+          }
+        }
+        buffer.flip();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return buffer.getLong();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      nextUses.close();
+    } finally {
+      Files.deleteIfExists(traceFile);
+      Files.deleteIfExists(nextUseFile);
+    }
+  }
+
+  private static long writeTrace(TraceReader source, Path traceFile) throws IOException {
+    ByteBuffer out = ByteBuffer.allocateDirect(CHUNK * Long.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    long references = 0;
+    try (FileChannel channel = FileChannel.open(traceFile, StandardOpenOption.WRITE)) {
+      for (long page = source.next(); page != TraceReader.END; page = source.next()) {
+        if (!out.hasRemaining()) {
+          drain(out, channel);
+        }
+        out.putLong(source.isWrite() ? page | WRITE : page);
+        references++;
+      }
+      drain(out, channel);
+    }
+    return references;
+  }
+
+  private static void writeNextUses(Path traceFile, Path nextUseFile, long references)
+      throws IOException {
+    ByteBuffer in = ByteBuffer.allocateDirect(CHUNK * Long.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    ByteBuffer out = ByteBuffer.allocateDirect(CHUNK * Long.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    long[] pages = new long[CHUNK];
+    long[] nextUse = new long[CHUNK];
+    long[] seen = new long[0];
+    PageTable pageTable = new PageTable();
+    try (FileChannel trace = FileChannel.open(traceFile, StandardOpenOption.READ);
+        FileChannel channel = FileChannel.open(nextUseFile, StandardOpenOption.WRITE)) {
+      for (long end = references; end > 0; ) {
+        long start = Math.max(0, end - CHUNK);
+        int length = (int) (end - start);
+        in.clear().limit(length * Long.BYTES);
+        while (in.hasRemaining()) {
+          if (trace.read(in, start * Long.BYTES + in.position()) < 0) {
+            throw new IOException("Spilled trace is shorter than expected");
+          }
+        }
+        in.flip();
+        in.asLongBuffer().get(pages, 0, length);
+        for (int i = length - 1; i >= 0; i--) {
+          int id = pageTable.intern(pages[i] & ~WRITE).getId();
+          if (id >= seen.length) {
+            int old = seen.length;
+            seen = Arrays.copyOf(seen, Math.max(id + 1, old * 2));
+            Arrays.fill(seen, old, seen.length, NEVER);
+          }
+          nextUse[i] = seen[id];
+          seen[id] = start + i;
+        }
+        out.clear();
+        out.asLongBuffer().put(nextUse, 0, length);
+        out.limit(length * Long.BYTES);
+        while (out.hasRemaining()) {
+          channel.write(out, start * Long.BYTES + out.position());
+        }
+        end = start;
+      }
+    }
+  }
+
+  private static void drain(ByteBuffer out, FileChannel channel) throws IOException {
+    out.flip();
+    while (out.hasRemaining()) {
+      channel.write(out);
+    }
+    out.clear();
+  }
+}
@@ -0,0 +1,50 @@
+package simulation;
+
+/**
+ * The type Stride prefetcher.
+ * Detects references a constant number of pages apart. Once two
+ * consecutive references repeat the same non-zero stride, the pages the
+ * next {@code degree} strides lead to are kept read ahead, so a steady
+ * stream costs one prediction per reference.
+ */
+public class StridePrefetcher implements Prefetcher {
+  private final int degree;
+  private long last = Long.MIN_VALUE;
+  private long stride = 0;
+  private long ahead;
+
+  /**
+   * Instantiates a new Stride prefetcher.
+   *
+   * @param degree the number of strides read ahead
+   */
+  public StridePrefetcher(int degree) {
+    if (degree <= 0) {
+      throw new IllegalArgumentException("Prefetch degree must be positive");
+    }
+    this.degree = degree;
+  }
+
+  @Override
+  public int getDegree() {return degree;}
+
+  @Override
+  public int predict(long page, boolean fault, long[] pages) {
+    long delta = last == Long.MIN_VALUE ? 0 : page - last;
+    last = page;
+    if (delta == 0 || delta != stride) {
+      stride = delta;
+      ahead = page;
+      return 0;
+    }
+    if ((ahead - page) / stride < 0 || (ahead - page) % stride != 0) {
+      ahead = page;
+    }
+    int count = 0;
+    while ((ahead - page) / stride < degree && ahead + stride >= 0) {
+      ahead += stride;
+      pages[count++] = ahead;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,152 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The type Sweep.
+ * Runs every combination of algorithms and frame counts over one in-memory
+ * trace in parallel. The trace and the next-use index of OPT are built once
+ * and shared read-only by all runs; every run builds its own simulation on
+ * the worker running it.
+ */
+public final class Sweep {
+
+  private Sweep() {}
+
+  /**
+   * Runs the sweep on a pool of one worker per available processor.
+   *
+   * @param referenceTrace the reference trace
+   * @param policies the replacement algorithms
+   * @param frameCounts the memory capacities
+   * @return one cell per algorithm and frame count, algorithms outermost
+   */
+  public static List<Cell> run(ReferenceTrace referenceTrace,
+      List<? extends ReplacementPolicyProvider> policies, int[] frameCounts) {
+    return run(referenceTrace, policies, frameCounts, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Runs the sweep.
+   *
+   * @param referenceTrace the reference trace
+   * @param policies the replacement algorithms
+   * @param frameCounts the memory capacities
+   * @param parallelism the number of worker threads
+   * @return one cell per algorithm and frame count, algorithms outermost
+   */
+  public static List<Cell> run(ReferenceTrace referenceTrace,
+      List<? extends ReplacementPolicyProvider> policies, int[] frameCounts, int parallelism) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      NextUseIndex nextUse =
+          policies.stream().anyMatch(ReplacementPolicyProvider::requiresLookahead)
+              ? NextUseIndex.of(referenceTrace) : null;
+      List<ForkJoinTask<Cell>> tasks = new ArrayList<>();
+      for (ReplacementPolicyProvider policy : policies) {
+        for (int memoryCapacity : frameCounts) {
+          // built by the worker, so only the simulations running are in memory at once
+          tasks.add(pool.submit(() -> {
+            Simulation simulation = new Simulation(memoryCapacity, policy);
+            simulation.setRecordVictims(false);
+            if (policy.requiresLookahead()) {
+              simulation.setLookahead(nextUse.lookahead());
+            }
+            long start = System.nanoTime();
+            SimulationResult result = simulation.runSimulation(referenceTrace);
+            return new Cell(policy, result, System.nanoTime() - start);
+          }));
+        }
+      }
+      List<Cell> cells = new ArrayList<>(tasks.size());
+      for (ForkJoinTask<Cell> task : tasks) {
+        cells.add(task.join());
+      }
+      return cells;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Formats cells as CSV with a header line.
+   *
+   * @param cells the cells
+   * @return the CSV text
+   */
+  public static String toCsv(List<Cell> cells) {
+    StringBuilder csv = new StringBuilder(
+        "algorithm,frames,references,faults,hits,hitRatio,nanos,swapIns,swapOuts\n");
+    for (Cell cell : cells) {
+      SimulationResult result = cell.getResult();
+      csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.6f,%d,%d,%d\n",
+          cell.getAlgorithm().name(), result.getMemoryCapacity(), result.getReferences(),
+          result.getPageFaults(), result.getPageHits(), result.getHitRatio(), cell.getNanos(),
+          result.getSwapIns(), result.getSwapOuts()));
+    }
+    return csv.toString();
+  }
+
+  /**
+   * Formats cells as a JSON array of objects.
+   *
+   * @param cells the cells
+   * @return the JSON text
+   */
+  public static String toJson(List<Cell> cells) {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < cells.size(); i++) {
+      Cell cell = cells.get(i);
+      SimulationResult result = cell.getResult();
+      json.append(i == 0 ? "\n" : ",\n").append(String.format(Locale.ROOT,
+          "  {\"algorithm\": \"%s\", \"frames\": %d, \"references\": %d, \"faults\": %d,"
+              + " \"hits\": %d, \"hitRatio\": %.6f, \"nanos\": %d, \"swapIns\": %d,"
+              + " \"swapOuts\": %d}",
+          cell.getAlgorithm().name(), result.getMemoryCapacity(), result.getReferences(),
+          result.getPageFaults(), result.getPageHits(), result.getHitRatio(), cell.getNanos(),
+          result.getSwapIns(), result.getSwapOuts()));
+    }
+    return json.append("\n]\n").toString();
+  }
+
+  /**
+   * The type Cell.
+   * Result of one algorithm at one frame count.
+   */
+  public static final class Cell {
+    private final ReplacementPolicyProvider algorithm;
+    private final SimulationResult result;
+    private final long nanos;
+
+    private Cell(ReplacementPolicyProvider algorithm, SimulationResult result, long nanos) {
+      this.algorithm = algorithm;
+      this.result = result;
+      this.nanos = nanos;
+    }
+
+    /**
+     * Gets algorithm.
+     *
+     * @return the replacement algorithm
+     */
+    public ReplacementPolicyProvider getAlgorithm() {return algorithm;}
+
+    /**
+     * Gets result.
+     *
+     * @return the result of the run
+     */
+    public SimulationResult getResult() {return result;}
+
+    /**
+     * Gets nanos.
+     *
+     * @return the wall time of the run in nanoseconds
+     */
+    public long getNanos() {return nanos;}
+  }
+}
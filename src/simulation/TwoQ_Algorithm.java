@@ -0,0 +1,106 @@
+package simulation;
+
+
+/**
+ * The type Two q algorithm.
+ * 2Q (Johnson and Shasha, VLDB '94). New pages enter the FIFO A1in; pages
+ * evicted from it are remembered in the ghost FIFO A1out. Only a page
+ * referenced again while remembered in A1out earns a place in the LRU list
+ * Am, so pages used once, such as scans, never push out the working set.
+ * A1in gets a quarter of the frames and A1out remembers half as many pages
+ * as there are frames, the tuning suggested by the paper. Every reference
+ * costs O(1).
+ */
+public class TwoQ_Algorithm implements ReplacementPolicy {
+  private static final int A1_IN = 0;
+  private static final int A1_OUT = 1;
+  private static final int AM = 2;
+
+  private final PageLists lists = new PageLists(3);
+  private final int inLimit;
+  private final int outLimit;
+
+  /**
+   * Instantiates a new Two q algorithm.
+   *
+   * @param context the simulation
+   */
+  public TwoQ_Algorithm(PolicyContext context) {
+    int memoryCapacity = context.getMemoryCapacity();
+    inLimit = Math.max(1, memoryCapacity / 4);
+    outLimit = Math.max(1, memoryCapacity / 2);
+  }
+
+  /**
+   * moves a page of Am to its most recent end, pages in A1in keep their place
+   */
+  @Override
+  public void onHit(int page, int frame) {
+    if (lists.listOf(page) == AM) {
+      lists.moveToLast(AM, page);
+    }
+  }
+
+  /**
+   * a page remembered in A1out goes to Am, any other to A1in
+   */
+  @Override
+  public void onMiss(int id, int frame) {
+    if (lists.listOf(id) == A1_OUT) {
+      lists.moveToLast(AM, id);
+    } else {
+      lists.addLast(A1_IN, id);
+    }
+  }
+
+  /**
+   * the victim is the oldest page of A1in while it is over its share, else
+   * the least recently used page of Am
+   */
+  @Override
+  public int selectVictim() {
+    if (lists.size(A1_IN) > inLimit || lists.size(AM) == 0) {
+      return lists.first(A1_IN);
+    }
+    return lists.first(AM);
+  }
+
+  /**
+   * remembers pages evicted from A1in in A1out, forgetting the oldest
+   */
+  @Override
+  public void onEvict(int id, int frame) {
+    if (lists.listOf(id) == AM) {
+      lists.remove(id);
+      return;
+    }
+    lists.moveToLast(A1_OUT, id);
+    if (lists.size(A1_OUT) > outLimit) {
+      lists.remove(lists.first(A1_OUT));
+    }
+  }
+
+  /**
+   * Method to add algorithms unique text to default intro text.
+   * @return String of algorithms unique intro text.
+   */
+  @Override
+  public String intro() {
+    return "In the 2Q page-replacement algorithm, new pages wait in a FIFO queue and only pages"
+        + " referenced again soon after leaving it\nenter the main LRU list. The victim frame is"
+        + " the oldest new page, or the least recently used page of the main list.\n";
+  }
+
+  /**
+   * Method to add algorithms unique text to default text when page miss occurs.
+   * @param victim the victim page id
+   * @return String of algorithms unique missed page text.
+   */
+  @Override
+  public String missText(int victim) {
+    return lists.listOf(victim) == A1_OUT
+        ? "which was the oldest page in the queue of new pages."
+        : "which was the least recently used page of the main list.";
+  }
+
+}
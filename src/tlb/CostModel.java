@@ -0,0 +1,141 @@
+package tlb;
+
+import java.util.Locale;
+
+/**
+ * The type Cost model.
+ * Latencies in nanoseconds of the events of one memory access. Costs add up
+ * along the path an access takes: every access pays the memory access and
+ * an L1 TLB lookup, an L1 miss adds the L2 lookup, an L2 miss adds the page
+ * walk, and a page fault adds a minor fault on the first touch of a page or
+ * a major fault when the page has to be read back in.
+ */
+public class CostModel {
+  /**
+   * Typical latencies: 100 ns memory, 1 ns L1 TLB, 5 ns L2 TLB, 50 ns page
+   * walk, 1 us minor fault and 100 us major fault.
+   */
+  public static final CostModel DEFAULT = new CostModel(100, 1, 5, 50, 1_000, 100_000);
+
+  private final double memory;
+  private final double l1;
+  private final double l2;
+  private final double walk;
+  private final double minorFault;
+  private final double majorFault;
+
+  /**
+   * Instantiates a new Cost model.
+   *
+   * @param memory the memory access, paid by every reference
+   * @param l1 the L1 TLB lookup
+   * @param l2 the L2 TLB lookup
+   * @param walk the page-table walk
+   * @param minorFault the fault on the first touch of a page, a zero fill
+   * @param majorFault the fault reading an evicted page back in
+   */
+  public CostModel(double memory, double l1, double l2, double walk, double minorFault,
+      double majorFault) {
+    this.memory = memory;
+    this.l1 = l1;
+    this.l2 = l2;
+    this.walk = walk;
+    this.minorFault = minorFault;
+    this.majorFault = majorFault;
+  }
+
+  /**
+   * Parses a cost model as comma separated {@code name=ns} pairs overriding
+   * the {@link #DEFAULT}, with the names mem, l1, l2, walk, minor and major.
+   *
+   * @param spec the costs, e.g. {@code walk=80,major=5000000}
+   * @return the cost model
+   * @throws IllegalArgumentException if a name is unknown or a cost negative
+   */
+  public static CostModel parse(String spec) {
+    double[] costs = {DEFAULT.memory, DEFAULT.l1, DEFAULT.l2, DEFAULT.walk,
+        DEFAULT.minorFault, DEFAULT.majorFault};
+    for (String pair : spec.split(",")) {
+      String[] parts = pair.split("=");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid cost " + pair);
+      }
+      int index;
+      switch (parts[0].trim().toLowerCase()) {
+        case "mem":
+          index = 0;
+          break;
+        case "l1":
+          index = 1;
+          break;
+        case "l2":
+          index = 2;
+          break;
+        case "walk":
+          index = 3;
+          break;
+        case "minor":
+          index = 4;
+          break;
+        case "major":
+          index = 5;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown cost " + parts[0]);
+      }
+      costs[index] = Double.parseDouble(parts[1]);
+      if (costs[index] < 0) {
+        throw new IllegalArgumentException("Costs must not be negative: " + pair);
+      }
+    }
+    return new CostModel(costs[0], costs[1], costs[2], costs[3], costs[4], costs[5]);
+  }
+
+  /**
+   * Gets memory.
+   *
+   * @return the memory access in ns
+   */
+  public double getMemory() {return memory;}
+
+  /**
+   * Gets l1.
+   *
+   * @return the L1 TLB lookup in ns
+   */
+  public double getL1() {return l1;}
+
+  /**
+   * Gets l2.
+   *
+   * @return the L2 TLB lookup in ns
+   */
+  public double getL2() {return l2;}
+
+  /**
+   * Gets walk.
+   *
+   * @return the page-table walk in ns
+   */
+  public double getWalk() {return walk;}
+
+  /**
+   * Gets minor fault.
+   *
+   * @return the first-touch fault in ns
+   */
+  public double getMinorFault() {return minorFault;}
+
+  /**
+   * Gets major fault.
+   *
+   * @return the fault reading a page back in, in ns
+   */
+  public double getMajorFault() {return majorFault;}
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "mem=%s,l1=%s,l2=%s,walk=%s,minor=%s,major=%s",
+        memory, l1, l2, walk, minorFault, majorFault);
+  }
+}
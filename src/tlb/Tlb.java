@@ -0,0 +1,224 @@
+package tlb;
+
+import java.util.BitSet;
+import java.util.Locale;
+import simulation.Simulation;
+import simulation.Simulation.Page;
+import simulation.SimulationListener;
+
+/**
+ * The type Tlb.
+ * A one or two level translation lookaside buffer in front of the page
+ * replacement of a run. Attach it as the {@link SimulationListener}: every
+ * reference is looked up in the L1 level, then the L2 level, and otherwise
+ * costs a page walk; a page fault always walks, since the translations of
+ * an evicted page are invalidated with it. Together with a
+ * {@link CostModel} the counts give the effective memory access time.
+ */
+public class Tlb implements SimulationListener {
+  private final TlbLevel l1;
+  private final TlbLevel l2;
+  private final CostModel costs;
+  private final BitSet loaded = new BitSet();
+  private long references = 0;
+  private long l1Hits = 0;
+  private long l2Hits = 0;
+  private long walks = 0;
+  private long minorFaults = 0;
+  private long majorFaults = 0;
+
+  /**
+   * Instantiates a new Tlb.
+   *
+   * @param l1 the first level
+   * @param l2 the second level, or null for a single level
+   * @param costs the latencies of the events
+   */
+  public Tlb(TlbLevel l1, TlbLevel l2, CostModel costs) {
+    this.l1 = l1;
+    this.l2 = l2;
+    this.costs = costs;
+  }
+
+  /**
+   * Parses the levels as one or two comma separated
+   * {@code entries:ways[:lru|fifo|random]} specifications, LRU by default.
+   *
+   * @param spec the levels, e.g. {@code 64:4,1536:12}
+   * @param costs the latencies of the events
+   * @return the TLB
+   * @throws IllegalArgumentException if a level is invalid
+   */
+  public static Tlb parse(String spec, CostModel costs) {
+    String[] levels = spec.split(",");
+    if (levels.length > 2) {
+      throw new IllegalArgumentException("A TLB has one or two levels: " + spec);
+    }
+    return new Tlb(level(levels[0]), levels.length > 1 ? level(levels[1]) : null, costs);
+  }
+
+  private static TlbLevel level(String spec) {
+    String[] parts = spec.split(":");
+    if (parts.length < 2 || parts.length > 3) {
+      throw new IllegalArgumentException("Invalid TLB level " + spec);
+    }
+    return new TlbLevel(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+        parts.length > 2 ? TlbLevel.Replacement.valueOf(parts[2].toUpperCase())
+            : TlbLevel.Replacement.LRU);
+  }
+
+  @Override
+  public void simulationStarted(Simulation simulation) {
+    l1.flush();
+    if (l2 != null) {
+      l2.flush();
+    }
+    loaded.clear();
+    references = 0;
+    l1Hits = 0;
+    l2Hits = 0;
+    walks = 0;
+    minorFaults = 0;
+    majorFaults = 0;
+  }
+
+  @Override
+  public void pageHit(Simulation simulation, Page page) {
+    references++;
+    long number = page.getNumber();
+    if (l1.lookup(number)) {
+      l1Hits++;
+    } else if (l2 != null && l2.lookup(number)) {
+      l2Hits++;
+      l1.insert(number);
+    } else {
+      walk(number);
+    }
+  }
+
+  @Override
+  public void pageFault(Simulation simulation, Page page, Page victim) {
+    references++;
+    invalidate(victim);
+    if (loaded.get(page.getId())) {
+      majorFaults++;
+    } else {
+      loaded.set(page.getId());
+      minorFaults++;
+    }
+    walk(page.getNumber());
+  }
+
+  @Override
+  public void pagePrefetched(Simulation simulation, Page page, Page victim) {
+    loaded.set(page.getId());
+    invalidate(victim);
+  }
+
+  /**
+   * Drops the translations of an evicted page from every level.
+   */
+  private void invalidate(Page victim) {
+    if (victim != null) {
+      l1.invalidate(victim.getNumber());
+      if (l2 != null) {
+        l2.invalidate(victim.getNumber());
+      }
+    }
+  }
+
+  /**
+   * Walks the page table and caches the translation in every level.
+   */
+  private void walk(long number) {
+    walks++;
+    l1.insert(number);
+    if (l2 != null) {
+      l2.insert(number);
+    }
+  }
+
+  /**
+   * Gets references.
+   *
+   * @return the number of references looked up
+   */
+  public long getReferences() {return references;}
+
+  /**
+   * Gets l1 hits.
+   *
+   * @return the references translated by the L1 level
+   */
+  public long getL1Hits() {return l1Hits;}
+
+  /**
+   * Gets l2 hits.
+   *
+   * @return the references translated by the L2 level
+   */
+  public long getL2Hits() {return l2Hits;}
+
+  /**
+   * Gets walks.
+   *
+   * @return the references that walked the page table, faults included
+   */
+  public long getWalks() {return walks;}
+
+  /**
+   * Gets minor faults.
+   *
+   * @return the faults on the first touch of a page
+   */
+  public long getMinorFaults() {return minorFaults;}
+
+  /**
+   * Gets major faults.
+   *
+   * @return the faults on pages evicted before
+   */
+  public long getMajorFaults() {return majorFaults;}
+
+  /**
+   * Gets the total time of all references under the cost model.
+   *
+   * @return the time in ns
+   */
+  public double getTotalTime() {
+    long l1Misses = references - l1Hits;
+    return references * (costs.getMemory() + costs.getL1())
+        + (l2 == null ? 0 : l1Misses * costs.getL2())
+        + walks * costs.getWalk()
+        + minorFaults * costs.getMinorFault()
+        + majorFaults * costs.getMajorFault();
+  }
+
+  /**
+   * Gets the effective memory access time.
+   *
+   * @return the mean time per reference in ns, 0 without references
+   */
+  public double getEffectiveAccessTime() {
+    return references == 0 ? 0 : getTotalTime() / references;
+  }
+
+  /**
+   * Gets the effective memory access time without page faults, the cost of
+   * the memory access and its address translation.
+   *
+   * @return the mean time per reference in ns, 0 without references
+   */
+  public double getTranslationAccessTime() {
+    return references == 0 ? 0 : (getTotalTime() - minorFaults * costs.getMinorFault()
+        - majorFaults * costs.getMajorFault()) / references;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "tlb=%s%s l1Hits=%d l2Hits=%d walks=%d minorFaults=%d"
+        + " majorFaults=%d translation=%.2fns emat=%.2fns", l1, l2 == null ? "" : "," + l2,
+        l1Hits, l2Hits, walks, minorFaults, majorFaults, getTranslationAccessTime(),
+        getEffectiveAccessTime());
+  }
+}
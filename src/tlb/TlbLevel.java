@@ -0,0 +1,169 @@
+package tlb;
+
+import java.util.Arrays;
+
+/**
+ * The type Tlb level.
+ * One set-associative level of a translation lookaside buffer, caching page
+ * numbers. Tags and replacement stamps live in flat primitive arrays, one
+ * row of {@code ways} entries per set, so a lookup touches one row and
+ * allocates nothing.
+ */
+public class TlbLevel {
+  private static final long EMPTY = -1;
+
+  /**
+   * The enum Replacement.
+   * Which entry of a full set a new translation replaces.
+   */
+  public enum Replacement {
+    /**
+     * The least recently used entry.
+     */
+    LRU,
+    /**
+     * The entry inserted first.
+     */
+    FIFO,
+    /**
+     * A pseudo-random entry.
+     */
+    RANDOM
+  }
+
+  private final int entries;
+  private final int ways;
+  private final int sets;
+  private final Replacement replacement;
+  private final long[] tags;
+  private final long[] stamps;
+  private long clock = 0;
+  private long random = 0x9E3779B97F4A7C15L;
+
+  /**
+   * Instantiates a new Tlb level.
+   *
+   * @param entries the number of entries, a multiple of the ways
+   * @param ways the associativity, equal to the entries for a fully associative level
+   * @param replacement the replacement within a set
+   */
+  public TlbLevel(int entries, int ways, Replacement replacement) {
+    if (entries <= 0 || ways <= 0 || entries % ways != 0) {
+      throw new IllegalArgumentException(
+          "TLB entries must be a positive multiple of the ways: " + entries + ":" + ways);
+    }
+    this.entries = entries;
+    this.ways = ways;
+    this.sets = entries / ways;
+    this.replacement = replacement;
+    tags = new long[entries];
+    stamps = new long[entries];
+    Arrays.fill(tags, EMPTY);
+  }
+
+  /**
+   * Gets the first entry of the set of a page.
+   */
+  private int row(long page) {
+    long hash = page * 0x9E3779B97F4A7C15L;
+    return (int) Long.remainderUnsigned(hash ^ hash >>> 32, sets) * ways;
+  }
+
+  /**
+   * Looks up the translation of a page.
+   *
+   * @param page the page number
+   * @return true on a hit
+   */
+  public boolean lookup(long page) {
+    int row = row(page);
+    for (int i = row; i < row + ways; i++) {
+      if (tags[i] == page) {
+        if (replacement == Replacement.LRU) {
+          stamps[i] = ++clock;
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Inserts the translation of a page not cached in this level, replacing
+   * an empty entry or else one chosen by the replacement.
+   *
+   * @param page the page number
+   */
+  public void insert(long page) {
+    int row = row(page);
+    int victim = row;
+    for (int i = row; i < row + ways; i++) {
+      if (tags[i] == EMPTY) {
+        victim = i;
+        break;
+      }
+      if (stamps[i] < stamps[victim]) {
+        victim = i;
+      }
+    }
+    if (replacement == Replacement.RANDOM && tags[victim] != EMPTY) {
+      random ^= random << 13;
+      random ^= random >>> 7;
+      random ^= random << 17;
+      victim = row + (int) Long.remainderUnsigned(random, ways);
+    }
+    tags[victim] = page;
+    stamps[victim] = ++clock;
+  }
+
+  /**
+   * Drops the translation of a page, when the page leaves memory.
+   *
+   * @param page the page number
+   */
+  public void invalidate(long page) {
+    int row = row(page);
+    for (int i = row; i < row + ways; i++) {
+      if (tags[i] == page) {
+        tags[i] = EMPTY;
+        stamps[i] = 0;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Drops every translation.
+   */
+  public void flush() {
+    Arrays.fill(tags, EMPTY);
+    Arrays.fill(stamps, 0);
+    clock = 0;
+  }
+
+  /**
+   * Gets entries.
+   *
+   * @return the number of entries
+   */
+  public int getEntries() {return entries;}
+
+  /**
+   * Gets ways.
+   *
+   * @return the associativity
+   */
+  public int getWays() {return ways;}
+
+  /**
+   * Gets replacement.
+   *
+   * @return the replacement within a set
+   */
+  public Replacement getReplacement() {return replacement;}
+
+  @Override
+  public String toString() {
+    return entries + ":" + ways + ":" + replacement.name().toLowerCase();
+  }
+}
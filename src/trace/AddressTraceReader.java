@@ -0,0 +1,40 @@
+package trace;
+
+import java.io.IOException;
+
+/**
+ * The type Address trace reader.
+ * Reads a trace of virtual addresses and turns each address into the number
+ * of the page holding it, for a given page size such as 4K, 2M or 1G.
+ */
+public class AddressTraceReader implements TraceReader {
+  private final TraceReader addresses;
+  private final int shift;
+
+  /**
+   * Instantiates a new Address trace reader.
+   *
+   * @param addresses the trace of addresses, closed with this reader
+   * @param pageSize the page size in bytes, a power of two
+   */
+  public AddressTraceReader(TraceReader addresses, long pageSize) {
+    this.addresses = addresses;
+    this.shift = PageSize.shift(pageSize);
+  }
+
+  @Override
+  public long next() throws IOException {
+    long address = addresses.next();
+    return address == END ? END : address >>> shift;
+  }
+
+  @Override
+  public boolean isWrite() {
+    return addresses.isWrite();
+  }
+
+  @Override
+  public void close() throws IOException {
+    addresses.close();
+  }
+}
@@ -0,0 +1,92 @@
+package trace;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * The type Binary trace reader.
+ * Reads fixed-width little-endian page numbers through a reusable direct
+ * buffer. 32-bit values are unsigned; 64-bit page numbers must not be
+ * negative, while 64-bit virtual addresses are unsigned and shifted to page
+ * numbers here, so kernel-half addresses with the top bit set fit.
+ */
+public class BinaryTraceReader implements TraceReader {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final ReadableByteChannel channel;
+  private final int width;
+  private final int shift;
+  private final ByteBuffer buffer =
+      ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+  /**
+   * Instantiates a new Binary trace reader.
+   *
+   * @param channel the channel to read, closed with this reader
+   * @param width the width of a page number in bytes, 4 or 8
+   */
+  public BinaryTraceReader(ReadableByteChannel channel, int width) {
+    this(channel, width, 0);
+  }
+
+  /**
+   * Instantiates a new Binary trace reader of virtual addresses.
+   *
+   * @param channel the channel to read, closed with this reader
+   * @param width the width of an address in bytes, 4 or 8
+   * @param shift the log2 of the page size the addresses are divided by, 0
+   *     if the channel already holds page numbers
+   */
+  public BinaryTraceReader(ReadableByteChannel channel, int width, int shift) {
+    if (width != Integer.BYTES && width != Long.BYTES) {
+      throw new IllegalArgumentException("Page numbers must be 4 or 8 bytes wide");
+    }
+    this.channel = channel;
+    this.width = width;
+    this.shift = shift;
+    buffer.flip();
+  }
+
+  @Override
+  public long next() throws IOException {
+    if (buffer.remaining() < width && !fill()) {
+      return END;
+    }
+    if (width == Integer.BYTES) {
+      return (buffer.getInt() & 0xFFFFFFFFL) >>> shift;
+    }
+    long value = buffer.getLong() >>> shift;
+    if (value < 0) {
+      throw new IOException("Page number out of range: " + Long.toUnsignedString(value));
+    }
+    return value;
+  }
+
+  /**
+   * Refills the buffer.
+   * @return false at a clean end of the trace
+   */
+  private boolean fill() throws IOException {
+    buffer.compact();
+    while (buffer.position() < width) {
+      if (channel.read(buffer) < 0) {
+        boolean clean = buffer.position() == 0;
+        buffer.flip();
+        if (clean) {
+          return false;
+        }
+        throw new EOFException("Trace ends in the middle of a page number");
+      }
+    }
+    buffer.flip();
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,134 @@
+package trace;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import trace.TraceHeader.Encoding;
+
+/**
+ * The type Packed trace reader.
+ * Reads a packed trace file, see {@link TraceHeader}, through memory-mapped
+ * windows of the file, decoding page numbers straight out of the mapping
+ * without copying, along with their access types if the file has them.
+ */
+public class PackedTraceReader implements TraceReader {
+  /**
+   * Largest part of the file mapped at once.
+   */
+  static final long WINDOW = 1L << 30;
+
+  private final FileChannel channel;
+  private final TraceHeader header;
+  private final long fileSize;
+  private final int maxBytes;
+  private MappedByteBuffer buffer;
+  private long bufferStart;
+  private long remaining;
+  private boolean write = false;
+
+  /**
+   * Instantiates a new Packed trace reader.
+   *
+   * @param path the packed trace file
+   * @throws IOException if the file cannot be opened or is not a packed trace
+   */
+  public PackedTraceReader(Path path) throws IOException {
+    channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      header = TraceHeader.read(channel);
+      fileSize = channel.size();
+      remaining = header.getCount();
+      maxBytes = header.getEncoding() == Encoding.VARINT
+          ? TraceHeader.MAX_VARINT_BYTES : header.getWidth();
+      map(TraceHeader.SIZE);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets header.
+   *
+   * @return the header of the file
+   */
+  public TraceHeader getHeader() {
+    return header;
+  }
+
+  @Override
+  public long next() throws IOException {
+    if (remaining == 0) {
+      return END;
+    }
+    if (buffer.remaining() < maxBytes && bufferStart + buffer.limit() < fileSize) {
+      map(bufferStart + buffer.position());
+    }
+    remaining--;
+    long value = decode();
+    if (header.hasWrites()) {
+      write = (value & 1) != 0;
+      return value >>> 1;
+    }
+    return value;
+  }
+
+  @Override
+  public boolean isWrite() {
+    return write;
+  }
+
+  /**
+   * Decodes the next value of the body.
+   */
+  private long decode() throws IOException {
+    try {
+      if (header.getEncoding() == Encoding.VARINT) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+          byte b = buffer.get();
+          value |= (long) (b & 0x7F) << shift;
+          if (b >= 0) {
+            return value;
+          }
+          if (shift >= 56) {
+            throw new IOException("Malformed varint in packed trace");
+          }
+        }
+      }
+      switch (header.getWidth()) {
+        case 1:
+          return buffer.get() & 0xFFL;
+        case 2:
+          return buffer.getShort() & 0xFFFFL;
+        case 4:
+          return buffer.getInt() & 0xFFFFFFFFL;
+        default:
+          long value = buffer.getLong();
+          if (value < 0) {
+            throw new IOException("Page number out of range: " + Long.toUnsignedString(value));
+          }
+          return value;
+      }
+    } catch (BufferUnderflowException e) {
+      throw new EOFException("Packed trace is shorter than its header says");
+    }
+  }
+
+  private void map(long offset) throws IOException {
+    bufferStart = offset;
+    buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+        Math.min(WINDOW, fileSize - offset));
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
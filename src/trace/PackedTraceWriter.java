@@ -0,0 +1,153 @@
+package trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import trace.TraceHeader.Encoding;
+
+/**
+ * The type Packed trace writer.
+ * Writes a packed trace file, see {@link TraceHeader}. The reference count
+ * is filled into the header when the writer is closed. A writer created with
+ * write flags stores every page number with a bit telling a write from a read.
+ */
+public class PackedTraceWriter implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final Encoding encoding;
+  private final int width;
+  private final long pageSize;
+  private final boolean writes;
+  private final ByteBuffer buffer =
+      ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  private final long maxValue;
+  private long count = 0;
+
+  /**
+   * Instantiates a new Packed trace writer.
+   *
+   * @param path the file to create or replace
+   * @param encoding the encoding of page numbers
+   * @param width the fixed width in bytes, ignored for varints
+   * @param pageSize the page size in bytes the page numbers refer to, 0 if unknown
+   * @throws IOException if the file cannot be created
+   */
+  public PackedTraceWriter(Path path, Encoding encoding, int width, long pageSize)
+      throws IOException {
+    this(path, encoding, width, pageSize, false);
+  }
+
+  /**
+   * Instantiates a new Packed trace writer.
+   *
+   * @param path the file to create or replace
+   * @param encoding the encoding of page numbers
+   * @param width the fixed width in bytes, ignored for varints
+   * @param pageSize the page size in bytes the page numbers refer to, 0 if unknown
+   * @param writes true to store a write bit with every page number, which
+   *     halves the largest page number that fits
+   * @throws IOException if the file cannot be created
+   */
+  public PackedTraceWriter(Path path, Encoding encoding, int width, long pageSize,
+      boolean writes) throws IOException {
+    TraceHeader header = new TraceHeader(encoding, width, pageSize, 0, writes);
+    this.encoding = encoding;
+    this.width = header.getWidth();
+    this.pageSize = pageSize;
+    this.writes = writes;
+    long maxValue = (encoding == Encoding.VARINT || width == Long.BYTES)
+        ? Long.MAX_VALUE : (1L << (8 * width)) - 1;
+    this.maxValue = writes ? maxValue >>> 1 : maxValue;
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    header.write(channel);
+    channel.position(TraceHeader.SIZE);
+  }
+
+  /**
+   * Appends a read of a page.
+   *
+   * @param pageNumber the page number, not negative
+   * @throws IOException if the value does not fit or cannot be written
+   */
+  public void write(long pageNumber) throws IOException {
+    write(pageNumber, false);
+  }
+
+  /**
+   * Appends a reference.
+   *
+   * @param pageNumber the page number, not negative
+   * @param write true if the reference writes the page
+   * @throws IOException if the value does not fit or cannot be written
+   * @throws IllegalArgumentException if a write is appended without write flags
+   */
+  public void write(long pageNumber, boolean write) throws IOException {
+    if (pageNumber < 0 || pageNumber > maxValue) {
+      throw new IOException("Page number " + pageNumber + " does not fit in " + width + " bytes");
+    }
+    if (write && !writes) {
+      throw new IllegalArgumentException("The packed trace was created without write flags");
+    }
+    if (writes) {
+      pageNumber = pageNumber << 1 | (write ? 1 : 0);
+    }
+    if (buffer.remaining() < TraceHeader.MAX_VARINT_BYTES) {
+      flush();
+    }
+    if (encoding == Encoding.VARINT) {
+      while (pageNumber >= 0x80) {
+        buffer.put((byte) (pageNumber | 0x80));
+        pageNumber >>>= 7;
+      }
+      buffer.put((byte) pageNumber);
+    } else {
+      switch (width) {
+        case 1:
+          buffer.put((byte) pageNumber);
+          break;
+        case 2:
+          buffer.putShort((short) pageNumber);
+          break;
+        case 4:
+          buffer.putInt((int) pageNumber);
+          break;
+        default:
+          buffer.putLong(pageNumber);
+      }
+    }
+    count++;
+  }
+
+  /**
+   * Gets the number of page numbers written so far.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+      new TraceHeader(encoding, width, pageSize, count, writes).write(channel);
+    } finally {
+      channel.close();
+    }
+  }
+}
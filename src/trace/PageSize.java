@@ -0,0 +1,49 @@
+package trace;
+
+/**
+ * The type Page size.
+ * Helpers for page sizes given as a number of bytes, optionally with a K, M
+ * or G suffix (4K, 2M, 1G). Page sizes must be powers of two.
+ */
+public final class PageSize {
+
+  private PageSize() {}
+
+  /**
+   * Parses a page size.
+   *
+   * @param size the size, e.g. 4096, 4K, 2M or 1G
+   * @return the page size in bytes
+   * @throws IllegalArgumentException if the size is malformed or not a power of two
+   */
+  public static long parse(String size) {
+    String s = size.trim().toUpperCase();
+    long unit = 1;
+    if (s.endsWith("K") || s.endsWith("M") || s.endsWith("G")) {
+      unit = 1L << (10 * ("KMG".indexOf(s.charAt(s.length() - 1)) + 1));
+      s = s.substring(0, s.length() - 1);
+    }
+    long bytes;
+    try {
+      bytes = Long.parseLong(s) * unit;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid page size: " + size);
+    }
+    shift(bytes);
+    return bytes;
+  }
+
+  /**
+   * Gets the shift that turns an address into a page number.
+   *
+   * @param pageSize the page size in bytes
+   * @return log2 of the page size
+   * @throws IllegalArgumentException if the size is not a positive power of two
+   */
+  public static int shift(long pageSize) {
+    if (pageSize <= 0 || Long.bitCount(pageSize) != 1) {
+      throw new IllegalArgumentException("Page size must be a power of two: " + pageSize);
+    }
+    return Long.numberOfTrailingZeros(pageSize);
+  }
+}
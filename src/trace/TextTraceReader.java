@@ -0,0 +1,152 @@
+package trace;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The type Text trace reader.
+ * Parses decimal or 0x-prefixed hexadecimal values straight from the bytes of
+ * the stream, without creating a String per line. A value may be preceded by
+ * {@code R} or {@code W} to mark a read or a write, as in {@code W 0x7f00}.
+ * Virtual addresses are read as unsigned 64-bit values and shifted to page
+ * numbers here, so kernel-half addresses with the top bit set fit.
+ */
+public class TextTraceReader implements TraceReader {
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final long MAX_UNSIGNED_TENTH = Long.divideUnsigned(-1L, 10);
+
+  private final InputStream in;
+  private final int shift;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position = 0;
+  private int limit = 0;
+  private long line = 1;
+  private boolean write = false;
+
+  /**
+   * Instantiates a new Text trace reader.
+   *
+   * @param in the stream to read, closed with this reader
+   */
+  public TextTraceReader(InputStream in) {
+    this(in, 0);
+  }
+
+  /**
+   * Instantiates a new Text trace reader of virtual addresses.
+   *
+   * @param in the stream to read, closed with this reader
+   * @param shift the log2 of the page size the addresses are divided by, 0
+   *     if the stream already holds page numbers
+   */
+  public TextTraceReader(InputStream in, int shift) {
+    this.in = in;
+    this.shift = shift;
+  }
+
+  @Override
+  public long next() throws IOException {
+    write = false;
+    int c = skipSeparators();
+    if (c < 0) {
+      return END;
+    }
+    long value = 0;
+    position++;
+    int next = peek();
+    if (c == '0' && (next == 'x' || next == 'X')) {
+      position++;
+      c = peek();
+      if (digit(c, 16) < 0) {
+        throw new IOException("Missing hexadecimal digits on line " + line);
+      }
+      do {
+        if (value >>> 60 != 0) {
+          throw new IOException("Value too large on line " + line);
+        }
+        value = value << 4 | digit(c, 16);
+        position++;
+        c = peek();
+      } while (digit(c, 16) >= 0);
+    } else {
+      value = c - '0';
+      c = next;
+      while (c >= '0' && c <= '9') {
+        if (Long.compareUnsigned(value, MAX_UNSIGNED_TENTH) > 0
+            || (value == MAX_UNSIGNED_TENTH && c > '5')) {
+          throw new IOException("Value too large on line " + line);
+        }
+        value = value * 10 + (c - '0');
+        position++;
+        c = peek();
+      }
+    }
+    if (c >= 0 && !isSeparator(c) && c != '#') {
+      throw new IOException("Unexpected character '" + (char) c + "' on line " + line);
+    }
+    value >>>= shift;
+    if (value < 0) {
+      throw new IOException("Value too large on line " + line);
+    }
+    return value;
+  }
+
+  private static int digit(int c, int radix) {
+    return c < 0 ? -1 : Character.digit(c, radix);
+  }
+
+  /**
+   * Skips separators, comments and access types.
+   * @return the first digit of the next number, or -1 at end of stream
+   */
+  private int skipSeparators() throws IOException {
+    while (true) {
+      int c = peek();
+      if (c < 0 || (c >= '0' && c <= '9')) {
+        return c;
+      }
+      if (c == '#') {
+        while (c >= 0 && c != '\n') {
+          position++;
+          c = peek();
+        }
+      } else if (c == 'R' || c == 'r' || c == 'W' || c == 'w') {
+        write = c == 'W' || c == 'w';
+        position++;
+      } else if (!isSeparator(c)) {
+        throw new IOException("Unexpected character '" + (char) c + "' on line " + line);
+      } else {
+        if (c == '\n') {
+          line++;
+        }
+        position++;
+      }
+    }
+  }
+
+  @Override
+  public boolean isWrite() {
+    return write;
+  }
+
+  private static boolean isSeparator(int c) {
+    return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == ',';
+  }
+
+  private int peek() throws IOException {
+    if (position == limit) {
+      limit = in.read(buffer, 0, buffer.length);
+      position = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return -1;
+      }
+    }
+    return buffer[position] & 0xFF;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
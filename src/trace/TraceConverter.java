@@ -0,0 +1,162 @@
+package trace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import trace.TraceHeader.Encoding;
+
+/**
+ * The type Trace converter.
+ * Converts text, raw binary and virtual-address traces into packed trace
+ * files, which are the fastest to simulate. When a page size is given the
+ * input is read as virtual addresses and stored as page numbers. Text traces
+ * may mark writes, so they are converted with a write bit per reference.
+ * <pre>
+ * usage: TraceConverter input output [--from text|int32|int64] [--page-size 4K]
+ *                                    [--encoding varint|fixed1|fixed2|fixed4|fixed8]
+ * </pre>
+ */
+public final class TraceConverter {
+
+  private TraceConverter() {}
+
+  /**
+   * Writes every reference of a trace to a packed trace file.
+   *
+   * @param source the trace to convert, read to the end but not closed
+   * @param target the packed trace file to create
+   * @param encoding the encoding of page numbers
+   * @param width the fixed width in bytes, ignored for varints
+   * @param pageSize the page size in bytes the page numbers refer to, 0 if unknown
+   * @return the number of references written
+   * @throws IOException if the source cannot be read or the target written
+   * @throws IllegalArgumentException if the source has writes
+   */
+  public static long convert(TraceReader source, Path target, Encoding encoding, int width,
+      long pageSize) throws IOException {
+    return convert(source, target, encoding, width, pageSize, false);
+  }
+
+  /**
+   * Writes every reference of a trace to a packed trace file. If the
+   * conversion fails the file is deleted, so no truncated trace is left.
+   *
+   * @param source the trace to convert, read to the end but not closed
+   * @param target the packed trace file to create
+   * @param encoding the encoding of page numbers
+   * @param width the fixed width in bytes, ignored for varints
+   * @param pageSize the page size in bytes the page numbers refer to, 0 if unknown
+   * @param writes true to keep the access type of every reference
+   * @return the number of references written
+   * @throws IOException if the source cannot be read or the target written
+   * @throws IllegalArgumentException if the source has writes that are not kept
+   */
+  public static long convert(TraceReader source, Path target, Encoding encoding, int width,
+      long pageSize, boolean writes) throws IOException {
+    long count;
+    boolean converted = false;
+    try {
+      try (PackedTraceWriter writer =
+          new PackedTraceWriter(target, encoding, width, pageSize, writes)) {
+        for (long page = source.next(); page != TraceReader.END; page = source.next()) {
+          writer.write(page, source.isWrite());
+        }
+        count = writer.getCount();
+      }
+      converted = true;
+      return count;
+    } finally {
+      if (!converted) {
+        Files.deleteIfExists(target);
+      }
+    }
+  }
+
+  /**
+   * Converts a trace file to a packed trace file.
+   *
+   * @param input the trace file to convert
+   * @param format the format of the input
+   * @param pageSize the page size if the input holds virtual addresses, 0 if
+   *     it already holds page numbers
+   * @param target the packed trace file to create
+   * @param encoding the encoding of page numbers
+   * @param width the fixed width in bytes, ignored for varints
+   * @return the number of references written
+   * @throws IOException if the source cannot be read or the target written
+   */
+  public static long convert(Path input, TraceFormat format, long pageSize, Path target,
+      Encoding encoding, int width) throws IOException {
+    try (TraceReader source = format.open(input, pageSize)) {
+      return convert(source, target, encoding, width, pageSize, format == TraceFormat.TEXT);
+    }
+  }
+
+  /**
+   * Parses the format of an input trace.
+   *
+   * @param name text, int32 or int64
+   * @return the format
+   * @throws IllegalArgumentException if the format is unknown
+   */
+  private static TraceFormat parseFormat(String name) {
+    switch (name) {
+      case "text":
+        return TraceFormat.TEXT;
+      case "int32":
+        return TraceFormat.INT32_LE;
+      case "int64":
+        return TraceFormat.INT64_LE;
+      default:
+        throw new IllegalArgumentException("Unknown format " + name);
+    }
+  }
+
+  /**
+   * Command line entry point.
+   *
+   * @param args the input arguments
+   */
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      System.out.println("usage: TraceConverter input output [--from text|int32|int64]"
+          + " [--page-size 4K] [--encoding varint|fixed1|fixed2|fixed4|fixed8]");
+      return;
+    }
+    TraceFormat format = TraceFormat.TEXT;
+    long pageSize = 0;
+    Encoding encoding = Encoding.VARINT;
+    int width = 0;
+    try {
+      for (int i = 2; i < args.length; i += 2) {
+        if (i + 1 == args.length) {
+          throw new IllegalArgumentException("Missing value for " + args[i]);
+        }
+        switch (args[i]) {
+          case "--from":
+            format = parseFormat(args[i + 1]);
+            break;
+          case "--page-size":
+            pageSize = PageSize.parse(args[i + 1]);
+            break;
+          case "--encoding":
+            if (!args[i + 1].equals("varint")) {
+              encoding = Encoding.FIXED;
+              width = Integer.parseInt(args[i + 1].replace("fixed", ""));
+            }
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + args[i]);
+        }
+      }
+      long start = System.nanoTime();
+      long references = convert(Paths.get(args[0]), format, pageSize, Paths.get(args[1]),
+          encoding, width);
+      System.out.printf("Converted %d references in %.1f s\n",
+          references, (System.nanoTime() - start) / 1e9);
+    } catch (IOException | IllegalArgumentException e) {
+      System.out.println("Error: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package trace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The enum Trace format.
+ * The on-disk formats a trace file can be read from.
+ */
+public enum TraceFormat {
+  /**
+   * Decimal or 0x-prefixed hexadecimal values separated by whitespace or
+   * commas, typically one per line. Text after a '#' is ignored up to the
+   * end of the line.
+   */
+  TEXT,
+  /**
+   * Little-endian unsigned 32-bit page numbers.
+   */
+  INT32_LE,
+  /**
+   * Little-endian 64-bit page numbers.
+   */
+  INT64_LE,
+  /**
+   * Packed trace with a header, read through a memory mapping, see
+   * {@link TraceHeader}.
+   */
+  PACKED;
+
+  /**
+   * Opens a reader for a trace file in this format.
+   *
+   * @param path the trace file
+   * @return the reader
+   * @throws IOException if the file cannot be opened
+   */
+  public TraceReader open(Path path) throws IOException {
+    return open(path, 0);
+  }
+
+  /**
+   * Opens a reader for a trace file in this format, optionally holding
+   * virtual addresses rather than page numbers.
+   *
+   * @param path the trace file
+   * @param pageSize the page size to turn addresses into page numbers with,
+   *     0 if the file already holds page numbers
+   * @return the reader
+   * @throws IOException if the file cannot be opened, or is a packed trace
+   *     whose header records a page size and so holds page numbers already
+   */
+  public TraceReader open(Path path, long pageSize) throws IOException {
+    int shift = pageSize == 0 ? 0 : PageSize.shift(pageSize);
+    switch (this) {
+      case TEXT:
+        return new TextTraceReader(Files.newInputStream(path), shift);
+      case INT32_LE:
+        return new BinaryTraceReader(Files.newByteChannel(path), Integer.BYTES, shift);
+      case INT64_LE:
+        return new BinaryTraceReader(Files.newByteChannel(path), Long.BYTES, shift);
+      default:
+        PackedTraceReader reader = new PackedTraceReader(path);
+        if (pageSize == 0) {
+          return reader;
+        }
+        if (reader.getHeader().getPageSize() != 0) {
+          reader.close();
+          throw new IOException("The packed trace already holds page numbers of "
+              + reader.getHeader().getPageSize() + " byte pages, leave out the page size");
+        }
+        return new AddressTraceReader(reader, pageSize);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * The type Trace header.
+ * Header of a packed trace file. All fields are little-endian:
+ * <pre>
+ *   0  magic       4 bytes  "PTRC"
+ *   4  version     1 byte   2, or 1 for files written before the flags
+ *   5  encoding    1 byte   0 = fixed width, 1 = unsigned LEB128 varint
+ *   6  width       1 byte   bytes per page number when fixed: 1, 2, 4 or 8
+ *   7  flags       1 byte   bit 0 = writes, always 0 in version 1
+ *   8  page size   8 bytes  bytes per page the numbers refer to, 0 if unknown
+ *  16  count       8 bytes  number of references in the body
+ * </pre>
+ * The body follows immediately at {@link #SIZE}. With the writes flag every
+ * value is a page number shifted left by one, its low bit set for a write.
+ */
+public final class TraceHeader {
+  /**
+   * Size of the header in bytes.
+   */
+  public static final int SIZE = 24;
+  /**
+   * Longest varint a page number can take.
+   */
+  public static final int MAX_VARINT_BYTES = 10;
+
+  private static final int MAGIC = 'P' | 'T' << 8 | 'R' << 16 | 'C' << 24;
+  private static final byte VERSION = 2;
+  private static final int WRITES = 1;
+
+  /**
+   * The enum Encoding.
+   * How page numbers are stored in the body.
+   */
+  public enum Encoding {
+    FIXED,
+    VARINT
+  }
+
+  private final Encoding encoding;
+  private final int width;
+  private final long pageSize;
+  private final long count;
+  private final boolean writes;
+
+  /**
+   * Instantiates a new Trace header.
+   *
+   * @param encoding the encoding
+   * @param width the fixed width in bytes, ignored for varints
+   * @param pageSize the page size in bytes, 0 if unknown
+   * @param count the number of references
+   */
+  public TraceHeader(Encoding encoding, int width, long pageSize, long count) {
+    this(encoding, width, pageSize, count, false);
+  }
+
+  /**
+   * Instantiates a new Trace header.
+   *
+   * @param encoding the encoding
+   * @param width the fixed width in bytes, ignored for varints
+   * @param pageSize the page size in bytes, 0 if unknown
+   * @param count the number of references
+   * @param writes true if every value carries a write bit
+   */
+  public TraceHeader(Encoding encoding, int width, long pageSize, long count, boolean writes) {
+    if (encoding == Encoding.FIXED && width != 1 && width != 2 && width != 4 && width != 8) {
+      throw new IllegalArgumentException("Fixed width must be 1, 2, 4 or 8 bytes");
+    }
+    this.encoding = encoding;
+    this.width = encoding == Encoding.FIXED ? width : 0;
+    this.pageSize = pageSize;
+    this.count = count;
+    this.writes = writes;
+  }
+
+  /**
+   * Reads the header at the start of a file.
+   *
+   * @param channel the channel
+   * @return the header
+   * @throws IOException if the file is not a packed trace
+   */
+  public static TraceHeader read(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, buffer.position()) < 0) {
+        throw new IOException("Not a packed trace: file too short");
+      }
+    }
+    buffer.flip();
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("Not a packed trace: bad magic");
+    }
+    int version = buffer.get();
+    if (version != 1 && version != VERSION) {
+      throw new IOException("Unsupported packed trace version");
+    }
+    int encoding = buffer.get();
+    if (encoding < 0 || encoding >= Encoding.values().length) {
+      throw new IOException("Unknown packed trace encoding " + encoding);
+    }
+    int width = buffer.get();
+    int flags = buffer.get();
+    if ((flags & ~WRITES) != 0) {
+      throw new IOException("Unknown packed trace flags " + flags);
+    }
+    long pageSize = buffer.getLong();
+    long count = buffer.getLong();
+    try {
+      return new TraceHeader(Encoding.values()[encoding], width, pageSize, count,
+          (flags & WRITES) != 0);
+    } catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage());
+    }
+  }
+
+  /**
+   * Writes the header at the start of a file.
+   *
+   * @param channel the channel
+   * @throws IOException if the header cannot be written
+   */
+  public void write(FileChannel channel) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC)
+        .put(VERSION)
+        .put((byte) encoding.ordinal())
+        .put((byte) width)
+        .put((byte) (writes ? WRITES : 0))
+        .putLong(pageSize)
+        .putLong(count)
+        .flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer, buffer.position());
+    }
+  }
+
+  /**
+   * Gets encoding.
+   *
+   * @return the encoding
+   */
+  public Encoding getEncoding() {return encoding;}
+
+  /**
+   * Gets width.
+   *
+   * @return bytes per page number for fixed width, 0 for varints
+   */
+  public int getWidth() {return width;}
+
+  /**
+   * Gets page size.
+   *
+   * @return the page size in bytes, 0 if unknown
+   */
+  public long getPageSize() {return pageSize;}
+
+  /**
+   * Gets count.
+   *
+   * @return the number of references
+   */
+  public long getCount() {return count;}
+
+  /**
+   * Tells whether every value carries a write bit.
+   *
+   * @return true if the trace tells reads from writes
+   */
+  public boolean hasWrites() {return writes;}
+}
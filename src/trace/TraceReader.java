@@ -0,0 +1,37 @@
+package trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The interface Trace reader.
+ * Streams page numbers from a trace one reference at a time, so traces of
+ * any length can be simulated without holding them in memory. A trace may
+ * also tell reads from writes, see {@link #isWrite()}.
+ */
+public interface TraceReader extends Closeable {
+
+  /**
+   * Returned by {@link #next()} once the trace is exhausted.
+   */
+  long END = -1;
+
+  /**
+   * Reads the next reference.
+   *
+   * @return the next page number, a non-negative 63-bit value, or {@link #END}
+   * @throws IOException if the trace cannot be read or is malformed
+   */
+  long next() throws IOException;
+
+  /**
+   * Tells whether the reference last returned by {@link #next()} writes its
+   * page. Traces without access types only read.
+   *
+   * @return true for a write
+   */
+  default boolean isWrite() {
+    return false;
+  }
+
+}
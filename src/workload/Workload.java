@@ -0,0 +1,39 @@
+package workload;
+
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * The interface Workload.
+ * A model of page references. A workload is an immutable description; each
+ * generated trace draws from its own sources, so one workload can feed any
+ * number of traces, in parallel, deterministically.
+ */
+@FunctionalInterface
+public interface Workload {
+
+  /**
+   * Creates a source of page numbers.
+   *
+   * @param random the random numbers of the source, owned by it
+   * @param start the index of the first reference the source produces, so
+   *     positional models such as loops and phases continue where the previous
+   *     block of the trace stopped
+   * @return the source, returning a non-negative page number per call
+   */
+  LongSupplier source(SplittableRandom random, long start);
+
+  /**
+   * Moves this workload to other page numbers, e.g. to give phases disjoint
+   * working sets.
+   *
+   * @param pages the number to add to every page number
+   * @return the shifted workload
+   */
+  default Workload offset(long pages) {
+    return (random, start) -> {
+      LongSupplier source = source(random, start);
+      return () -> source.getAsLong() + pages;
+    };
+  }
+}
@@ -0,0 +1,177 @@
+package workload;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+import simulation.ReferenceTrace;
+import trace.TraceConverter;
+import trace.TraceHeader.Encoding;
+import trace.TraceReader;
+
+/**
+ * The type Workload generator.
+ * Turns a {@link Workload} into a trace. The trace is cut into blocks of
+ * {@link #BLOCK} references, each drawn from its own source whose random
+ * numbers are split off a seeded root in block order. Blocks can therefore be
+ * generated in any order or in parallel and the trace only depends on the
+ * workload, the seed and the length.
+ * <pre>
+ * usage: WorkloadGenerator output --workload spec --length 100M [--seed 1]
+ *                          [--phase-length 1M]
+ * </pre>
+ */
+public final class WorkloadGenerator {
+  /**
+   * The number of references drawn from one source.
+   */
+  public static final int BLOCK = 1 << 16;
+
+  private WorkloadGenerator() {}
+
+  /**
+   * Streams a trace, e.g. straight into the simulation engine.
+   *
+   * @param workload the workload
+   * @param length the number of references
+   * @param seed the seed
+   * @return the trace
+   */
+  public static TraceReader stream(Workload workload, long length, long seed) {
+    SplittableRandom root = new SplittableRandom(seed);
+    return new TraceReader() {
+      private long idx = 0;
+      private LongSupplier source;
+
+      @Override
+      public long next() {
+        if (idx == length) {
+          return END;
+        }
+        if (idx % BLOCK == 0) {
+          source = workload.source(root.split(), idx);
+        }
+        idx++;
+        return source.getAsLong();
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+
+  /**
+   * Generates a trace in memory, one block per task.
+   *
+   * @param workload the workload
+   * @param length the number of references
+   * @param seed the seed
+   * @param parallelism the number of worker threads
+   * @return the trace, equal to the one streamed with the same seed
+   */
+  public static ReferenceTrace generate(Workload workload, int length, long seed,
+      int parallelism) {
+    SplittableRandom root = new SplittableRandom(seed);
+    int blocks = (int) ((length + (long) BLOCK - 1) / BLOCK);
+    SplittableRandom[] randoms = new SplittableRandom[blocks];
+    for (int i = 0; i < blocks; i++) {
+      randoms[i] = root.split();
+    }
+    long[] pages = new long[length];
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(block -> {
+        int from = block * BLOCK;
+        int to = (int) Math.min(length, (long) from + BLOCK);
+        LongSupplier source = workload.source(randoms[block], from);
+        for (int i = from; i < to; i++) {
+          pages[i] = source.getAsLong();
+        }
+      })).join();
+    } finally {
+      pool.shutdown();
+    }
+    ReferenceTrace.Builder builder = new ReferenceTrace.Builder();
+    for (long page : pages) {
+      builder.add(page);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Writes a generated trace to a packed trace file.
+   *
+   * @param args the output file and options
+   */
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.out.println("usage: WorkloadGenerator output --workload spec --length 100M"
+          + " [--seed 1] [--phase-length 1M]");
+      return;
+    }
+    String spec = null;
+    long length = -1;
+    long seed = 1;
+    long phaseLength = BLOCK;
+    try {
+      for (int i = 1; i < args.length; i += 2) {
+        if (i + 1 == args.length) {
+          throw new IllegalArgumentException("Missing value for " + args[i]);
+        }
+        switch (args[i]) {
+          case "--workload":
+            spec = args[i + 1];
+            break;
+          case "--length":
+            length = parseCount(args[i + 1]);
+            break;
+          case "--seed":
+            seed = Long.parseLong(args[i + 1]);
+            break;
+          case "--phase-length":
+            phaseLength = parseCount(args[i + 1]);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + args[i]);
+        }
+      }
+      if (spec == null || length < 0) {
+        throw new IllegalArgumentException("A workload and a length are required");
+      }
+      Workload workload = Workloads.parse(spec, phaseLength);
+      try (TraceReader trace = stream(workload, length, seed)) {
+        long count = TraceConverter.convert(trace, Paths.get(args[0]), Encoding.VARINT, 0, 0);
+        System.out.println("Wrote " + count + " references to " + args[0]);
+      }
+    } catch (IllegalArgumentException | IOException e) {
+      System.out.println("Error: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Parses a count with an optional decimal K, M or G suffix.
+   *
+   * @param count the count, e.g. 1000, 64K or 100M
+   * @return the count
+   * @throws IllegalArgumentException if the count is malformed or negative
+   */
+  public static long parseCount(String count) {
+    String s = count.trim().toUpperCase();
+    long unit = 1;
+    if (s.endsWith("K") || s.endsWith("M") || s.endsWith("G")) {
+      unit = new long[] {1_000, 1_000_000, 1_000_000_000}["KMG".indexOf(s.charAt(s.length() - 1))];
+      s = s.substring(0, s.length() - 1);
+    }
+    try {
+      long value = Math.multiplyExact(Long.parseLong(s), unit);
+      if (value < 0) {
+        throw new NumberFormatException();
+      }
+      return value;
+    } catch (NumberFormatException | ArithmeticException e) {
+      throw new IllegalArgumentException("Invalid count: " + count);
+    }
+  }
+}
@@ -0,0 +1,296 @@
+package workload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * The type Workloads.
+ * Factories for the locality models the generator knows about, and a parser
+ * for workload specifications given on the command line.
+ */
+public final class Workloads {
+
+  private Workloads() {}
+
+  /**
+   * Every page equally likely, no locality at all.
+   *
+   * @param pages the number of pages
+   * @return the workload
+   */
+  public static Workload uniform(long pages) {
+    requirePositive(pages);
+    return (random, start) -> () -> random.nextLong(pages);
+  }
+
+  /**
+   * Zipfian popularity: page k, from 0, is referenced with probability
+   * proportional to 1 / (k + 1)^skew. Sampled by rejection-inversion
+   * (Hörmann and Derflinger), O(1) per reference and without a table, so
+   * billions of pages are fine.
+   *
+   * @param pages the number of pages
+   * @param skew the exponent, greater than 0
+   * @return the workload
+   */
+  public static Workload zipf(long pages, double skew) {
+    requirePositive(pages);
+    if (!(skew > 0)) {
+      throw new IllegalArgumentException("Zipf skew must be positive");
+    }
+    Zipf zipf = new Zipf(pages, skew);
+    return (random, start) -> () -> zipf.sample(random) - 1;
+  }
+
+  /**
+   * Hot/cold working set: a fraction of the references go to a small hot set,
+   * the rest spread over the cold pages.
+   *
+   * @param pages the number of pages
+   * @param hotPages the number of hot pages, pages 0 to hotPages - 1
+   * @param hotProbability the probability of referencing a hot page
+   * @return the workload
+   */
+  public static Workload hotCold(long pages, long hotPages, double hotProbability) {
+    requirePositive(pages);
+    if (hotPages <= 0 || hotPages >= pages || !(hotProbability >= 0 && hotProbability <= 1)) {
+      throw new IllegalArgumentException("Invalid hot set");
+    }
+    return (random, start) -> () -> random.nextDouble() < hotProbability
+        ? random.nextLong(hotPages) : random.nextLong(hotPages, pages);
+  }
+
+  /**
+   * Cyclic references to pages 0 to pages - 1, the worst case of LRU and
+   * FIFO once the loop is larger than memory.
+   *
+   * @param pages the length of the loop
+   * @return the workload
+   */
+  public static Workload loop(long pages) {
+    requirePositive(pages);
+    return (random, start) -> new LongSupplier() {
+      private long page = start % pages;
+
+      @Override
+      public long getAsLong() {
+        long next = page;
+        page = page + 1 == pages ? 0 : page + 1;
+        return next;
+      }
+    };
+  }
+
+  /**
+   * Sequential scan that never revisits a page.
+   *
+   * @return the workload
+   */
+  public static Workload scan() {
+    return (random, start) -> new LongSupplier() {
+      private long page = start;
+
+      @Override
+      public long getAsLong() {
+        return page++;
+      }
+    };
+  }
+
+  /**
+   * Picks one of several workloads independently for every reference.
+   *
+   * @param weights the relative weight of every workload
+   * @param workloads the workloads
+   * @return the workload
+   */
+  public static Workload mixture(double[] weights, Workload... workloads) {
+    if (weights.length != workloads.length || workloads.length == 0
+        || Arrays.stream(weights).anyMatch(weight -> !(weight >= 0))
+        || Arrays.stream(weights).sum() <= 0) {
+      throw new IllegalArgumentException("Every workload of a mixture needs a weight");
+    }
+    double[] cumulative = new double[weights.length];
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) {
+      sum += weights[i];
+      cumulative[i] = sum;
+    }
+    double total = sum;
+    Workload[] components = workloads.clone();
+    return (random, start) -> {
+      LongSupplier[] sources = new LongSupplier[components.length];
+      for (int i = 0; i < components.length; i++) {
+        sources[i] = components[i].source(random.split(), start);
+      }
+      return () -> {
+        double u = random.nextDouble() * total;
+        int i = 0;
+        while (i < cumulative.length - 1 && u >= cumulative[i]) {
+          i++;
+        }
+        return sources[i].getAsLong();
+      };
+    };
+  }
+
+  /**
+   * Runs several workloads one after another, each for a fixed number of
+   * references, cycling back to the first after the last.
+   *
+   * @param phaseLength the number of references of each phase
+   * @param workloads the workloads of the phases
+   * @return the workload
+   */
+  public static Workload phases(long phaseLength, Workload... workloads) {
+    requirePositive(phaseLength);
+    if (workloads.length == 0) {
+      throw new IllegalArgumentException("No phases given");
+    }
+    Workload[] phases = workloads.clone();
+    return (random, start) -> {
+      LongSupplier[] sources = new LongSupplier[phases.length];
+      for (int i = 0; i < phases.length; i++) {
+        sources[i] = phases[i].source(random.split(), start);
+      }
+      return new LongSupplier() {
+        private long idx = start;
+
+        @Override
+        public long getAsLong() {
+          return sources[(int) (idx++ / phaseLength % sources.length)].getAsLong();
+        }
+      };
+    };
+  }
+
+  /**
+   * Parses a workload specification. Phases are separated by '/', the
+   * weighted components of a mixture by ','. A component is a model with its
+   * parameters separated by ':', optionally moved with '@offset':
+   * <pre>
+   * uniform:PAGES  zipf:PAGES:SKEW  hotcold:PAGES:HOT_PAGES:HOT_PROBABILITY
+   * loop:PAGES     scan
+   * </pre>
+   * For example {@code 0.9*zipf:100000:0.99,0.1*scan@1000000/loop:5000}.
+   *
+   * @param spec the specification
+   * @param phaseLength the number of references of each phase
+   * @return the workload
+   * @throws IllegalArgumentException if the specification is malformed
+   */
+  public static Workload parse(String spec, long phaseLength) {
+    String[] phaseSpecs = spec.split("/");
+    Workload[] phases = new Workload[phaseSpecs.length];
+    for (int i = 0; i < phaseSpecs.length; i++) {
+      String[] componentSpecs = phaseSpecs[i].split(",");
+      double[] weights = new double[componentSpecs.length];
+      List<Workload> components = new ArrayList<>();
+      for (int j = 0; j < componentSpecs.length; j++) {
+        String component = componentSpecs[j].trim();
+        int star = component.indexOf('*');
+        weights[j] = star < 0 ? 1 : Double.parseDouble(component.substring(0, star));
+        components.add(parseModel(component.substring(star + 1)));
+      }
+      phases[i] = components.size() == 1 ? components.get(0)
+          : mixture(weights, components.toArray(new Workload[0]));
+    }
+    return phases.length == 1 ? phases[0] : phases(phaseLength, phases);
+  }
+
+  private static Workload parseModel(String spec) {
+    int at = spec.indexOf('@');
+    String[] parts = (at < 0 ? spec : spec.substring(0, at)).split(":");
+    Workload workload;
+    try {
+      switch (parts[0].toLowerCase() + "/" + (parts.length - 1)) {
+        case "uniform/1":
+          workload = uniform(Long.parseLong(parts[1]));
+          break;
+        case "zipf/2":
+          workload = zipf(Long.parseLong(parts[1]), Double.parseDouble(parts[2]));
+          break;
+        case "hotcold/3":
+          workload = hotCold(Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+              Double.parseDouble(parts[3]));
+          break;
+        case "loop/1":
+          workload = loop(Long.parseLong(parts[1]));
+          break;
+        case "scan/0":
+          workload = scan();
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown workload " + spec);
+      }
+      return at < 0 ? workload : workload.offset(Long.parseLong(spec.substring(at + 1)));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid workload " + spec);
+    }
+  }
+
+  private static void requirePositive(long count) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("Page and phase counts must be positive");
+    }
+  }
+
+  /**
+   * Rejection-inversion sampler of ranks 1 to n, following Hörmann and
+   * Derflinger, "Rejection-inversion to generate variates from monotone
+   * discrete distributions" (1996).
+   */
+  private static final class Zipf {
+    private final long n;
+    private final double skew;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    Zipf(long n, double skew) {
+      this.n = n;
+      this.skew = skew;
+      hIntegralX1 = hIntegral(1.5) - 1;
+      hIntegralN = hIntegral(n + 0.5);
+      s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    long sample(SplittableRandom random) {
+      while (true) {
+        double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+        double x = hIntegralInverse(u);
+        long k = Math.max(1, Math.min(n, (long) (x + 0.5)));
+        if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+          return k;
+        }
+      }
+    }
+
+    private double h(double x) {
+      return Math.exp(-skew * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+      double logX = Math.log(x);
+      return helper2((1 - skew) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+      double t = Math.max(-1, x * (1 - skew));
+      return Math.exp(helper1(t) * x);
+    }
+
+    /** log1p(x) / x, accurate near 0. */
+    private static double helper1(double x) {
+      return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1 / 3.0 - 0.25 * x));
+    }
+
+    /** expm1(x) / x, accurate near 0. */
+    private static double helper2(double x) {
+      return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+  }
+}